@@ -0,0 +1,197 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents a task that refreshes at an interval that adapts to changes.
+ * <p>
+ * The refresh returns the version of the data it has. When the version
+ * is the same as the last refresh the interval is doubled, up to the
+ * maximum. When the version changes, or {@link #reset()} is called,
+ * the interval goes back to the minimum.
+ */
+public class AdaptiveRefresher {
+
+    private final @NotNull String identifier;
+    private final @NotNull Duration minimum;
+    private final @NotNull Duration maximum;
+    private final @NotNull LongSupplier refresh;
+    private final @NotNull BooleanSupplier isClosed;
+
+    private @NotNull Duration interval;
+    private long lastVersion = Long.MIN_VALUE;
+    private boolean running;
+    private boolean resetRequested;
+    private boolean stopped = true;
+    private @Nullable TaskHandle handle;
+
+    /**
+     * Used to create an adaptive refresher.
+     *
+     * @param identifier The identifier of the refresher's task.
+     * @param minimum    The shortest time between refreshes.
+     * @param maximum    The longest time between refreshes.
+     * @param refresh    Refreshes the data and returns its version.
+     * @param isClosed   Returns true when the refresher should stop.
+     */
+    public AdaptiveRefresher(@NotNull String identifier,
+                             @NotNull Duration minimum,
+                             @NotNull Duration maximum,
+                             @NotNull LongSupplier refresh,
+                             @NotNull BooleanSupplier isClosed) {
+
+        this.identifier = identifier;
+        this.minimum = minimum;
+        this.maximum = maximum.compareTo(minimum) < 0 ? minimum : maximum;
+        this.refresh = refresh;
+        this.isClosed = isClosed;
+        this.interval = minimum;
+    }
+
+    /**
+     * Used to start refreshing after the minimum interval.
+     * This does nothing if the refresher is already running.
+     *
+     * @param version The version of the data the owner already has.
+     * @return This instance.
+     */
+    public synchronized @NotNull AdaptiveRefresher start(long version) {
+        if (!this.isStopped()) return this;
+
+        this.stopped = false;
+        this.lastVersion = version;
+        this.interval = this.minimum;
+        this.schedule(this.interval);
+        return this;
+    }
+
+    /**
+     * Used to refresh as soon as possible, and go back
+     * to the minimum interval. Requests made before the
+     * refresh runs are combined into one refresh.
+     *
+     * @return This instance.
+     */
+    public synchronized @NotNull AdaptiveRefresher reset() {
+        if (this.isStopped()) return this;
+
+        this.interval = this.minimum;
+
+        // The refresh that is running may have missed
+        // the change, so refresh again once it is done.
+        if (this.running) {
+            this.resetRequested = true;
+            return this;
+        }
+
+        this.schedule(Duration.ZERO);
+        return this;
+    }
+
+    /**
+     * Used to stop refreshing.
+     *
+     * @return This instance.
+     */
+    public synchronized @NotNull AdaptiveRefresher stop() {
+        this.stopped = true;
+        if (this.handle != null) this.handle.cancel();
+        return this;
+    }
+
+    /**
+     * Used to check if the refresher has stopped.
+     * This includes when its task was cancelled by the
+     * task container, such as by the leak checker.
+     *
+     * @return True if it has stopped.
+     */
+    public synchronized boolean isStopped() {
+        return this.stopped
+                || (!this.running && this.handle != null && this.handle.isCancelled());
+    }
+
+    /**
+     * Used to get the current time between refreshes.
+     *
+     * @return The current interval.
+     */
+    public synchronized @NotNull Duration getInterval() {
+        return this.interval;
+    }
+
+    private void run() {
+
+        // Check outside the lock, as the owner
+        // may lock itself to check if it has closed.
+        if (this.isClosed.getAsBoolean()) {
+            this.stop();
+            return;
+        }
+
+        synchronized (this) {
+            if (this.stopped) return;
+
+            this.running = true;
+            this.resetRequested = false;
+        }
+
+        long version = this.lastVersion;
+        try {
+            version = this.refresh.getAsLong();
+        } catch (Exception exception) {
+            MessageManager.warn("Unable to run the refresh task " + this.identifier + ".");
+            exception.printStackTrace();
+        }
+
+        synchronized (this) {
+            this.running = false;
+            if (this.stopped) return;
+
+            if (this.resetRequested || version != this.lastVersion) {
+                this.interval = this.minimum;
+            } else {
+                this.interval = this.interval.multipliedBy(2);
+                if (this.interval.compareTo(this.maximum) > 0) this.interval = this.maximum;
+            }
+
+            this.lastVersion = version;
+            this.schedule(this.resetRequested ? Duration.ZERO : this.interval);
+        }
+    }
+
+    private void schedule(@NotNull Duration delay) {
+        this.handle = PublicTaskContainer.getInstance().runTask(
+                this::run,
+                delay,
+                this.identifier,
+                TaskHandle.Type.REFRESH,
+                this.isClosed
+        );
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Represents a message that has been parsed into its parts,
+ * so it can be sent many times without being parsed again.
+ * <li>Title example: "::title fadeIn stay fadeOut =string::"</li>
+ * <li>Subtitle example: "::subtitle fadeIn stay fadeOut =string>::"</li>
+ * <li>Action bar example: "::actionbar =string::"</li>
+ * <p>
+ * Fragments that are the same for every player are parsed once.
+ * Other fragments have their colours translated once, and only
+ * the placeholders are parsed for each player.
+ */
+public class CompiledMessage {
+
+    private static final int MAX_CACHE_SIZE = 256;
+    private static final @NotNull Map<String, CompiledMessage> cache = new LinkedHashMap<>(MAX_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledMessage> eldest) {
+            return this.size() > CompiledMessage.MAX_CACHE_SIZE;
+        }
+    };
+
+    private final @NotNull List<Part> partList;
+    private final @Nullable Fragment title;
+    private final @Nullable Fragment subtitle;
+    private final @NotNull Title.Times times;
+
+    /**
+     * Represents the type of part in a message.
+     */
+    private enum PartType {
+        CHAT,
+        ACTION_BAR
+    }
+
+    /**
+     * Represents a chat or action bar part of the message.
+     *
+     * @param type     The type of part.
+     * @param fragment The part's text.
+     */
+    private record Part(@NotNull PartType type, @NotNull Fragment fragment) {
+    }
+
+    /**
+     * Represents a piece of text in the message.
+     *
+     * @param translated The text with its colours translated.
+     * @param component  The parsed text, if it is the same for every player.
+     */
+    private record Fragment(@NotNull String translated, @Nullable Component component) {
+
+        /**
+         * Used to create a fragment from raw text.
+         *
+         * @param raw The raw text.
+         * @return The fragment.
+         */
+        private static @NotNull Fragment of(@NotNull String raw) {
+            final String translated = LegacyColourTranslator.translate(raw);
+
+            if (!MessageManager.isCacheable(raw)) return new Fragment(translated, null);
+            return new Fragment(translated, MessageManager.convertAndParse(raw, null));
+        }
+
+        /**
+         * Used to get the component for a player.
+         *
+         * @param player The instance of the player.
+         * @return The component.
+         */
+        private @NotNull Component render(@NotNull Player player) {
+            if (this.component != null) return this.component;
+            return MessageManager.convertAndParseMiniMessage(this.translated, player);
+        }
+    }
+
+    private CompiledMessage(@NotNull List<Part> partList, @Nullable Fragment title, @Nullable Fragment subtitle, @NotNull Title.Times times) {
+        this.partList = partList;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.times = times;
+    }
+
+    /**
+     * Used to send the message to a player.
+     *
+     * @param player The player to send the message to.
+     */
+    public void send(@NotNull Player player) {
+        for (Part part : this.partList) {
+            if (part.type() == PartType.ACTION_BAR) {
+                player.sendActionBar(part.fragment().render(player));
+                continue;
+            }
+
+            player.sendMessage(part.fragment().render(player));
+        }
+
+        // Check if there is a title to show.
+        if (this.title == null && this.subtitle == null) return;
+
+        player.showTitle(Title.title(
+                this.title == null ? Component.empty() : this.title.render(player),
+                this.subtitle == null ? Component.empty() : this.subtitle.render(player),
+                this.times
+        ));
+    }
+
+    /**
+     * Used to send the message to many players.
+     *
+     * @param players The players to send the message to.
+     */
+    public void send(@NotNull Collection<? extends Player> players) {
+        for (Player player : players) {
+            this.send(player);
+        }
+    }
+
+    /**
+     * Used to get a compiled message.
+     * Messages are cached after they are compiled, so this
+     * should be used for messages that are sent often.
+     * Messages that are different each time should use
+     * {@link #compile(String)} instead.
+     *
+     * @param message The raw message.
+     * @return The compiled message.
+     */
+    public static @NotNull CompiledMessage of(@NotNull String message) {
+        synchronized (CompiledMessage.cache) {
+            CompiledMessage compiled = CompiledMessage.cache.get(message);
+            if (compiled != null) return compiled;
+        }
+
+        CompiledMessage compiled = CompiledMessage.compile(message);
+
+        synchronized (CompiledMessage.cache) {
+            CompiledMessage.cache.put(message, compiled);
+        }
+
+        return compiled;
+    }
+
+    /**
+     * Used to remove every compiled message from the cache.
+     */
+    public static void clearCache() {
+        synchronized (CompiledMessage.cache) {
+            CompiledMessage.cache.clear();
+        }
+    }
+
+    /**
+     * Used to parse a message into its parts.
+     *
+     * @param message The raw message.
+     * @return The compiled message.
+     */
+    public static @NotNull CompiledMessage compile(@NotNull String message) {
+        String[] parts = message.split("::");
+
+        List<Part> partList = new ArrayList<>();
+        Title.Times times = Title.Times.times(
+                Duration.ofMillis(1000),
+                Duration.ofMillis(1000),
+                Duration.ofMillis(1000)
+        );
+
+        boolean hasTitle = false;
+        String title = "";
+        String subtitle = "";
+
+        // Loop though parts.
+        for (String part : parts) {
+            if (part.equals("")) continue;
+
+            // Check if it's a title part.
+            if (part.startsWith("title ")) {
+                hasTitle = true;
+                title = part.split("=")[1];
+
+                Title.Times temp = CompiledMessage.extractTimes(part);
+                if (temp != null) times = temp;
+                continue;
+            }
+
+            // Check if it's a subtitle part.
+            if (part.startsWith("subtitle ")) {
+                hasTitle = true;
+                subtitle = part.split("=")[1];
+
+                Title.Times temp = CompiledMessage.extractTimes(part);
+                if (temp != null) times = temp;
+                continue;
+            }
+
+            // Check if it's an actionbar part.
+            if (part.startsWith("actionbar ")) {
+                partList.add(new Part(PartType.ACTION_BAR, Fragment.of(part.split("=")[1])));
+                continue;
+            }
+
+            partList.add(new Part(PartType.CHAT, Fragment.of(part)));
+        }
+
+        return new CompiledMessage(
+                List.copyOf(partList),
+                hasTitle ? Fragment.of(title) : null,
+                hasTitle ? Fragment.of(subtitle) : null,
+                times
+        );
+    }
+
+    /**
+     * Used to extract the times from a title part.
+     *
+     * @param part The instance of the part.
+     * @return The times.
+     */
+    private static @Nullable Title.Times extractTimes(@NotNull String part) {
+        // Get durations. [title, fadeIn, stay, fadeOut, ""]
+        String[] durations = part.split("=")[0].split(" ");
+
+        // Check if there are no durations.
+        if (durations.length < 2 || durations.length == 2 && durations[1].equals("")) {
+            return null;
+        }
+
+        // Get durations.
+        int fadeIn = !durations[1].equals("")
+                ? Integer.parseInt(durations[1]) : 1000;
+
+        int stay = durations.length >= 3 && !durations[2].equals("")
+                ? Integer.parseInt(durations[2]) : 1000;
+
+        int fadeOut = durations.length >= 4 && !durations[3].equals("")
+                ? Integer.parseInt(durations[3]) : 1000;
+
+        // Create durations.
+        return Title.Times.times(
+                Duration.ofMillis(fadeIn),
+                Duration.ofMillis(stay),
+                Duration.ofMillis(fadeOut)
+        );
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Used to translate legacy colour codes into mini message tags.
+ * <ul>
+ *     <li>{@code &x} and {@code §x} become their mini message tag.</li>
+ *     <li>{@code &#rrggbb} becomes {@code <#rrggbb>}.</li>
+ * </ul>
+ * The message is translated in a single scan into one buffer.
+ */
+public final class LegacyColourTranslator {
+
+    private static final @NotNull String[] CODE_TABLE = new String[128];
+
+    static {
+        CODE_TABLE['0'] = "<reset><black>";
+        CODE_TABLE['1'] = "<reset><dark_blue>";
+        CODE_TABLE['2'] = "<reset><dark_green>";
+        CODE_TABLE['3'] = "<reset><dark_aqua>";
+        CODE_TABLE['4'] = "<reset><dark_red>";
+        CODE_TABLE['5'] = "<reset><dark_purple>";
+        CODE_TABLE['6'] = "<reset><gold>";
+        CODE_TABLE['7'] = "<reset><gray>";
+        CODE_TABLE['8'] = "<reset><dark_gray>";
+        CODE_TABLE['9'] = "<reset><blue>";
+        CODE_TABLE['a'] = "<reset><green>";
+        CODE_TABLE['b'] = "<reset><aqua>";
+        CODE_TABLE['c'] = "<reset><red>";
+        CODE_TABLE['d'] = "<reset><light_purple>";
+        CODE_TABLE['e'] = "<reset><yellow>";
+        CODE_TABLE['f'] = "<reset><white>";
+        CODE_TABLE['k'] = "<obf>";
+        CODE_TABLE['l'] = "<b>";
+        CODE_TABLE['m'] = "<st>";
+        CODE_TABLE['n'] = "<u>";
+        CODE_TABLE['o'] = "<i>";
+        CODE_TABLE['r'] = "<reset>";
+    }
+
+    private LegacyColourTranslator() {
+    }
+
+    /**
+     * Used to translate the legacy colour codes in a message.
+     * If the message contains no legacy codes, the same
+     * instance is returned.
+     *
+     * @param message The message to translate.
+     * @return The translated message.
+     */
+    public static @NotNull String translate(@NotNull String message) {
+        final int length = message.length();
+
+        // Find the first character that could start a code.
+        int index = 0;
+        while (index < length && !LegacyColourTranslator.isSymbol(message.charAt(index))) {
+            index++;
+        }
+
+        if (index == length) return message;
+
+        final StringBuilder builder = new StringBuilder(length + 32);
+        builder.append(message, 0, index);
+
+        while (index < length) {
+            char character = message.charAt(index);
+            char next = index + 1 < length ? message.charAt(index + 1) : 0;
+
+            // Hex colours.
+            if (next == '#' && (character == '&' || character == '<')) {
+                if (LegacyColourTranslator.isHex(message, index + 2)) {
+                    builder.append("<#").append(message, index + 2, index + 8).append('>');
+                    index += 8;
+                    continue;
+                }
+
+                // The legacy ampersand is converted
+                // even when it is not followed by hex.
+                if (character == '&') {
+                    builder.append("<#");
+                    index += 2;
+                    continue;
+                }
+            }
+
+            // Colour and decoration codes.
+            if (character == '&' || character == '§') {
+                String tag = next < CODE_TABLE.length ? CODE_TABLE[next] : null;
+
+                if (tag != null) {
+                    builder.append(tag);
+                    index += 2;
+                    continue;
+                }
+
+                // Legacy symbols are always converted to ampersands.
+                builder.append('&');
+                index++;
+                continue;
+            }
+
+            builder.append(character);
+            index++;
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isSymbol(char character) {
+        return character == '&' || character == '§' || character == '<';
+    }
+
+    private static boolean isHex(@NotNull String message, int start) {
+        if (start + 6 > message.length()) return false;
+
+        for (int index = start; index < start + 6; index++) {
+            char character = message.charAt(index);
+            if (character >= '0' && character <= '9') continue;
+            if (character >= 'a' && character <= 'f') continue;
+            if (character >= 'A' && character <= 'F') continue;
+            return false;
+        }
+
+        return true;
+    }
+}
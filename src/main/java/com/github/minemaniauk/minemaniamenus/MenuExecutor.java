@@ -0,0 +1,378 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Represents the executor used for database work started from menus.
+ * <p>
+ * Click actions are run on the packet handling thread, so they should
+ * submit their database work here instead of running it directly.
+ * Tasks for the same player are run one after another in the order
+ * they were submitted. Tasks for different players run in parallel,
+ * up to the amount of threads. Each player can only have a limited
+ * amount of tasks pending, so one player can not fill the queue.
+ * <p>
+ * Mutations should be submitted with {@link #submitOnce}, so repeated
+ * clicks on the same action are ignored while the first is pending.
+ * <p>
+ * When the runtime supports virtual threads they are used for the
+ * workers, otherwise daemon platform threads are used.
+ */
+public class MenuExecutor {
+
+    private final @NotNull ThreadPoolExecutor executor;
+    private final @NotNull Executor proxyExecutor;
+    private final @NotNull Map<UUID, CompletableFuture<?>> tailMap = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Integer> pendingMap = new ConcurrentHashMap<>();
+    private final int playerCapacity;
+    private final @NotNull Set<String> inFlightSet = ConcurrentHashMap.newKeySet();
+    private final boolean virtual;
+
+    private final @NotNull AtomicLong completed = new AtomicLong();
+    private final @NotNull AtomicLong failed = new AtomicLong();
+    private final @NotNull AtomicLong collapsed = new AtomicLong();
+    private final @NotNull AtomicLong totalLatencyNanos = new AtomicLong();
+    private final @NotNull AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Used to create a menu executor.
+     *
+     * @param threads        The maximum amount of tasks run at the same time.
+     * @param queueCapacity  The maximum amount of tasks waiting to run.
+     * @param playerCapacity The maximum amount of tasks pending for one player.
+     */
+    public MenuExecutor(int threads, int queueCapacity, int playerCapacity) {
+        this.playerCapacity = playerCapacity;
+
+        ThreadFactory virtualFactory = MenuExecutor.createVirtualThreadFactory();
+        this.virtual = virtualFactory != null;
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                this.virtual ? virtualFactory : MenuExecutor.createPlatformThreadFactory()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.proxyExecutor = runnable -> MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), runnable)
+                .schedule();
+    }
+
+    /**
+     * Used to submit a task for a player.
+     * The task will run after the player's previous tasks have finished.
+     * If the player already has too many tasks pending, the
+     * future is completed with a {@link RejectedExecutionException}.
+     *
+     * @param playerUuid The player the task is for.
+     * @param name       The name of the task, used in warnings.
+     * @param task       The task to run.
+     * @param <T>        The type of result.
+     * @return The future result of the task.
+     */
+    public <T> @NotNull CompletableFuture<T> submit(@NotNull UUID playerUuid, @NotNull String name, @NotNull Supplier<T> task) {
+        final long submittedNanos = System.nanoTime();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        // Check if the player has too many tasks pending.
+        if (!this.reservePending(playerUuid)) {
+            this.failed.incrementAndGet();
+            MessageManager.warn("Menu task &f" + name + " &6was rejected for &f" + playerUuid + "&6, too many tasks are pending.");
+            future.completeExceptionally(new RejectedExecutionException("Too many menu tasks pending for " + playerUuid));
+            return future;
+        }
+
+        CompletableFuture<?> previous = this.tailMap.put(playerUuid, future);
+        if (previous == null) previous = CompletableFuture.completedFuture(null);
+
+        previous.whenComplete((ignored, throwable) -> {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        future.complete(task.get());
+                    } catch (Throwable exception) {
+                        future.completeExceptionally(exception);
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+
+        future.whenComplete((result, throwable) -> {
+            this.tailMap.remove(playerUuid, future);
+            this.releasePending(playerUuid);
+            this.record(submittedNanos);
+
+            if (throwable == null) return;
+            this.failed.incrementAndGet();
+            MessageManager.warn("Menu task &f" + name + " &6failed for &f" + playerUuid + "&6: " + throwable);
+        });
+
+        return future;
+    }
+
+    /**
+     * Used to run a task for a player.
+     * The task will run after the player's previous tasks have finished.
+     *
+     * @param playerUuid The player the task is for.
+     * @param name       The name of the task, used in warnings.
+     * @param task       The task to run.
+     * @return The future that completes when the task has run.
+     */
+    public @NotNull CompletableFuture<Void> run(@NotNull UUID playerUuid, @NotNull String name, @NotNull Runnable task) {
+        return this.submit(playerUuid, name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Used to submit an action for a player, unless the
+     * same action is still pending for the player.
+     *
+     * @param playerUuid The player the action is for.
+     * @param action     The name of the action.
+     * @param task       The task to run.
+     * @param <T>        The type of result.
+     * @return The future result of the task or null
+     * if the action is already pending.
+     */
+    public <T> @Nullable CompletableFuture<T> submitOnce(@NotNull UUID playerUuid, @NotNull String action, @NotNull Supplier<T> task) {
+        final String key = playerUuid + ":" + action;
+
+        if (!this.inFlightSet.add(key)) {
+            this.collapsed.incrementAndGet();
+            return null;
+        }
+
+        CompletableFuture<T> future = this.submit(playerUuid, action, task);
+        future.whenComplete((result, throwable) -> this.inFlightSet.remove(key));
+        return future;
+    }
+
+    /**
+     * Used to run an action for a player, unless the
+     * same action is still pending for the player.
+     *
+     * @param playerUuid The player the action is for.
+     * @param action     The name of the action.
+     * @param task       The task to run.
+     * @return The future that completes when the task has
+     * run or null if the action is already pending.
+     */
+    public @Nullable CompletableFuture<Void> runOnce(@NotNull UUID playerUuid, @NotNull String action, @NotNull Runnable task) {
+        return this.submitOnce(playerUuid, action, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Used to check if an action is pending for a player.
+     *
+     * @param playerUuid The player's uuid.
+     * @param action     The name of the action.
+     * @return True if the action is pending.
+     */
+    public boolean isInFlight(@NotNull UUID playerUuid, @NotNull String action) {
+        return this.inFlightSet.contains(playerUuid + ":" + action);
+    }
+
+    /**
+     * Used to get the executor that runs tasks on the proxy's scheduler.
+     * Use this to continue with a result, for example to reopen an inventory.
+     *
+     * @return The proxy executor.
+     */
+    public @NotNull Executor getProxyExecutor() {
+        return this.proxyExecutor;
+    }
+
+    /**
+     * Used to check if the workers are virtual threads.
+     *
+     * @return True if virtual threads are used.
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Used to get the amount of tasks waiting for a worker.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Used to get the amount of tasks currently running.
+     *
+     * @return The amount of active tasks.
+     */
+    public int getActiveAmount() {
+        return this.executor.getActiveCount();
+    }
+
+    /**
+     * Used to get the amount of tasks that have finished.
+     *
+     * @return The amount of finished tasks.
+     */
+    public long getCompletedAmount() {
+        return this.completed.get();
+    }
+
+    /**
+     * Used to get the amount of tasks that failed
+     * or were rejected because the queue was full.
+     *
+     * @return The amount of failed tasks.
+     */
+    public long getFailedAmount() {
+        return this.failed.get();
+    }
+
+    /**
+     * Used to get the amount of actions that were
+     * ignored because they were already pending.
+     *
+     * @return The amount of collapsed actions.
+     */
+    public long getCollapsedAmount() {
+        return this.collapsed.get();
+    }
+
+    /**
+     * Used to get the average time from a task
+     * being submitted to it finishing.
+     *
+     * @return The average latency in milliseconds.
+     */
+    public double getAverageLatencyMillis() {
+        long amount = this.completed.get();
+        if (amount == 0) return 0;
+        return this.totalLatencyNanos.get() / (double) amount / 1_000_000d;
+    }
+
+    /**
+     * Used to get the longest time from a task
+     * being submitted to it finishing.
+     *
+     * @return The maximum latency in milliseconds.
+     */
+    public double getMaxLatencyMillis() {
+        return this.maxLatencyNanos.get() / 1_000_000d;
+    }
+
+    /**
+     * Used to stop accepting tasks and wait
+     * for the submitted tasks to finish.
+     *
+     * @param timeout How long to wait.
+     */
+    public void shutdown(@NotNull Duration timeout) {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                MessageManager.warn("Menu tasks did not finish in time, &f" + this.getQueueDepth() + " &6were waiting.");
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Used to count a new pending task for a player,
+     * unless they already have too many.
+     *
+     * @param playerUuid The player's uuid.
+     * @return True if the task can be submitted.
+     */
+    private boolean reservePending(@NotNull UUID playerUuid) {
+        if (this.pendingMap.merge(playerUuid, 1, Integer::sum) <= this.playerCapacity) return true;
+
+        this.releasePending(playerUuid);
+        return false;
+    }
+
+    private void releasePending(@NotNull UUID playerUuid) {
+        this.pendingMap.computeIfPresent(playerUuid, (key, amount) -> amount <= 1 ? null : amount - 1);
+    }
+
+    private void record(long submittedNanos) {
+        long latency = System.nanoTime() - submittedNanos;
+        this.completed.incrementAndGet();
+        this.totalLatencyNanos.addAndGet(latency);
+        this.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Used to create a virtual thread factory.
+     * This uses reflection, as virtual threads
+     * are not available in the source version.
+     *
+     * @return The thread factory or null if not supported.
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "MineManiaMenus-Menu-", 0L);
+
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+        } catch (Exception exception) {
+            return null;
+        }
+    }
+
+    private static @NotNull ThreadFactory createPlatformThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaMenus-Menu-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
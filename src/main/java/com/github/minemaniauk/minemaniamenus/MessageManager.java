@@ -20,6 +20,7 @@
 
 package com.github.minemaniauk.minemaniamenus;
 
+import com.github.minemaniauk.minemaniamenus.cache.ComponentCache;
 import com.github.minemaniauk.minemaniamenus.dependencys.MiniPlaceholdersAdapter;
 import com.github.minemaniauk.minemaniamenus.dependencys.MiniPlaceholdersDependency;
 import com.github.smuddgge.squishyconfiguration.console.Console;
@@ -32,15 +33,16 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Represents the message manager.
  */
 public class MessageManager {
 
-    private static final Pattern HEX_PATTERN = Pattern.compile("<#[0-9a-fA-F]{6}");
+    /**
+     * Cache of messages that have already been parsed.
+     */
+    private static final ComponentCache componentCache = new ComponentCache(1024);
 
     /**
      * List of players and who they last messaged.
@@ -94,38 +96,29 @@ public class MessageManager {
 
     /**
      * Used to convert a message to a component with color.
+     * Messages that cannot contain player placeholders
+     * are cached after they are parsed.
      *
      * @param message The message to convert.
      * @return The requested component.
      */
     public static @NotNull Component convertAndParse(@NotNull String message, @Nullable Player player) {
+        final boolean isCacheable = MessageManager.isCacheable(message);
+
+        if (isCacheable) {
+            Component cached = MessageManager.componentCache.get(message);
+            if (cached != null) return cached;
+        }
+
         try {
-            return MessageManager.convertAndParseMiniMessage(convertLegacyHexToMiniMessage(message)
-                            .replace("§", "&") // Ensure there are no legacy symbols.
-                            .replace("&0", "<reset><black>")
-                            .replace("&1", "<reset><dark_blue>")
-                            .replace("&2", "<reset><dark_green>")
-                            .replace("&3", "<reset><dark_aqua>")
-                            .replace("&4", "<reset><dark_red>")
-                            .replace("&5", "<reset><dark_purple>")
-                            .replace("&6", "<reset><gold>")
-                            .replace("&7", "<reset><gray>")
-                            .replace("&8", "<reset><dark_gray>")
-                            .replace("&9", "<reset><blue>")
-                            .replace("&a", "<reset><green>")
-                            .replace("&b", "<reset><aqua>")
-                            .replace("&c", "<reset><red>")
-                            .replace("&d", "<reset><light_purple>")
-                            .replace("&e", "<reset><yellow>")
-                            .replace("&f", "<reset><white>")
-                            .replace("&k", "<obf>")
-                            .replace("&l", "<b>")
-                            .replace("&m", "<st>")
-                            .replace("&n", "<u>")
-                            .replace("&o", "<i>")
-                            .replace("&r", "<reset>"),
+            Component component = MessageManager.convertAndParseMiniMessage(
+                    LegacyColourTranslator.translate(message),
                     player
             );
+
+            if (isCacheable && component != null) MessageManager.componentCache.put(message, component);
+            return component;
+
         } catch (Exception exception) {
             Console.warn("Unable to convert message : " + message);
             exception.printStackTrace();
@@ -134,34 +127,36 @@ public class MessageManager {
     }
 
     /**
-     * Used to convert standard messages into legacy messages.
+     * Used to check if a message will be parsed the same
+     * for every player.
+     * Mini placeholders are tags, so a message without a tag
+     * cannot contain a player placeholder.
      *
-     * @param message The message to convert.
-     * @return The requested string.
+     * @param message The raw message.
+     * @return True if the parsed message can be cached.
      */
-    public static String convertToLegacy(String message) {
-        return "§r" + message.replace("&", "§");
+    public static boolean isCacheable(@NotNull String message) {
+        if (!MiniPlaceholdersDependency.isEnabled()) return true;
+        return message.indexOf('<') == -1;
     }
 
     /**
-     * Used to convert legacy hex to mini message hex.
+     * Used to get the cache of parsed messages.
      *
-     * @param message The instance of the message.
-     * @return The message with converted hex.
+     * @return The component cache.
      */
-    public static String convertLegacyHexToMiniMessage(String message) {
-        final StringBuilder builder = new StringBuilder(
-                message.replace("&#", "<#")
-        );
-
-        final Matcher matcher = MessageManager.HEX_PATTERN.matcher(builder);
-
-        // Add the end bracket for a mini message.
-        matcher.results().forEach(
-                result -> builder.insert(result.start() + 8, ">")
-        );
+    public static @NotNull ComponentCache getComponentCache() {
+        return MessageManager.componentCache;
+    }
 
-        return builder.toString();
+    /**
+     * Used to convert standard messages into legacy messages.
+     *
+     * @param message The message to convert.
+     * @return The requested string.
+     */
+    public static String convertToLegacy(String message) {
+        return "§r" + message.replace("&", "§");
     }
 
     /**
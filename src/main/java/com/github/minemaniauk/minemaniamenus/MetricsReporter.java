@@ -0,0 +1,128 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import com.github.minemaniauk.minemaniamenus.inventory.FrameRenderer;
+import com.github.minemaniauk.minemaniamenus.inventory.RenderContext;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Represents the reporter that logs the plugin's
+ * caches, queues and counters at an interval.
+ * This is the one place the metrics are surfaced,
+ * so a slow menu can be traced to its cause
+ * from the proxy's log.
+ */
+public class MetricsReporter {
+
+    private @Nullable ScheduledTask task;
+
+    /**
+     * Used to start logging the metrics at an interval.
+     *
+     * @param interval The time between reports.
+     * @return This instance.
+     */
+    public @NotNull MetricsReporter start(@NotNull Duration interval) {
+        this.stop();
+        this.task = MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), this::report)
+                .delay(interval)
+                .repeat(interval)
+                .schedule();
+        return this;
+    }
+
+    /**
+     * Used to stop logging the metrics.
+     *
+     * @return This instance.
+     */
+    public @NotNull MetricsReporter stop() {
+        if (this.task == null) return this;
+        this.task.cancel();
+        this.task = null;
+        return this;
+    }
+
+    /**
+     * Used to log the current metrics.
+     */
+    public void report() {
+        MineManiaMenus plugin = MineManiaMenus.getInstance();
+        MenuExecutor executor = plugin.getMenuExecutor();
+        PublicTaskContainer tasks = PublicTaskContainer.getInstance();
+
+        MessageManager.log("&7[Metrics] Caches: users &f" + plugin.getUserRecordCache().getSize()
+                + " &7(" + this.percent(plugin.getUserRecordCache().getHitRate()) + " hits)"
+                + ", components &f" + MessageManager.getComponentCache().getSize()
+                + " &7(" + this.percent(MessageManager.getComponentCache().getHitRate()) + " hits)"
+                + ", skulls &f" + plugin.getSkullCache().getHits() + "&7/&f" + plugin.getSkullCache().getMisses()
+                + " &7hits/misses, sessions &f" + plugin.getUserSessionRegistry().getSize()
+        );
+
+        MessageManager.log("&7[Metrics] Executor: queued &f" + executor.getQueueDepth()
+                + " &7active &f" + executor.getActiveAmount()
+                + " &7completed &f" + executor.getCompletedAmount()
+                + " &7failed &f" + executor.getFailedAmount()
+                + " &7collapsed &f" + executor.getCollapsedAmount()
+                + " &7latency &f" + this.millis(executor.getAverageLatencyMillis())
+                + " &7avg &f" + this.millis(executor.getMaxLatencyMillis()) + " &7max"
+        );
+
+        MessageManager.log("&7[Metrics] Rendering: tasks &f" + tasks.getActiveTaskCount()
+                + " &7(&f" + tasks.getActiveTaskCount(TaskHandle.Type.REFRESH) + " &7refresh, &f"
+                + tasks.getActiveTaskCount(TaskHandle.Type.BACKGROUND) + " &7background)"
+                + ", lookups &f" + RenderContext.getTotalLookups()
+                + " &7saved &f" + RenderContext.getTotalLookupsSaved()
+                + "&7, slots sent &f" + FrameRenderer.getTotalSlotsSent()
+                + " &7skipped &f" + FrameRenderer.getTotalSlotsSkipped()
+        );
+
+        MessageManager.log("&7[Metrics] Game rooms: feed viewers &f" + plugin.getGameRoomFeed().getViewerAmount()
+                + " &7viewed rooms &f" + plugin.getRoomViewerRegistry().getRoomAmount()
+                + " &7fetches &f" + plugin.getRoomViewerRegistry().getFetchAmount()
+                + " &7changes sent &f" + plugin.getGameRoomChangeNotifier().getPublishedAmount()
+                + " &7received &f" + plugin.getGameRoomChangeNotifier().getReceivedAmount()
+        );
+
+        MessageManager.log("&7[Metrics] Arenas: reserved &f" + plugin.getArenaReserver().getReservations()
+                + " &7conflicts &f" + plugin.getArenaReserver().getConflicts()
+                + " &7exhausted &f" + plugin.getArenaReserver().getExhausted()
+                + "&7, warps &f" + this.percent(plugin.getWarpCoordinator().getSuccessRate())
+                + " &7arrived in &f" + this.millis(plugin.getWarpCoordinator().getAverageLatencyMillis())
+                + " &7avg, users waiting to be written &f" + plugin.getUserUpsertQueue().getPendingAmount()
+        );
+    }
+
+    private @NotNull String percent(double rate) {
+        return String.format(Locale.ROOT, "%.1f%%", rate * 100);
+    }
+
+    private @NotNull String millis(double millis) {
+        return String.format(Locale.ROOT, "%.1fms", millis);
+    }
+}
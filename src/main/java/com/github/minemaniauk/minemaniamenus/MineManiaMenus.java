@@ -25,6 +25,8 @@ import com.github.kerbity.kerb.packet.event.Event;
 import com.github.kerbity.kerb.packet.event.Priority;
 import com.github.minemaniauk.api.MineManiaAPI;
 import com.github.minemaniauk.api.MineManiaAPIContract;
+import com.github.minemaniauk.api.game.Arena;
+import com.github.minemaniauk.api.game.GameType;
 import com.github.minemaniauk.api.database.collection.UserCollection;
 import com.github.minemaniauk.api.database.record.UserRecord;
 import com.github.minemaniauk.api.kerb.event.gameroom.GameRoomInviteEvent;
@@ -34,12 +36,27 @@ import com.github.minemaniauk.api.kerb.event.useraction.UserActionIsOnlineEvent;
 import com.github.minemaniauk.api.kerb.event.useraction.UserActionIsVanishedEvent;
 import com.github.minemaniauk.api.kerb.event.useraction.UserActionMessageEvent;
 import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.minemaniamenus.arena.ArenaReserver;
+import com.github.minemaniauk.minemaniamenus.arena.DatabaseArenaStore;
+import com.github.minemaniauk.minemaniamenus.arena.KerbArenaLease;
+import com.github.minemaniauk.minemaniamenus.cache.InviteIndex;
+import com.github.minemaniauk.minemaniamenus.cache.PlayerCountService;
+import com.github.minemaniauk.minemaniamenus.cache.SkullCache;
+import com.github.minemaniauk.minemaniamenus.cache.UserRecordCache;
+import com.github.minemaniauk.minemaniamenus.cache.VanishIndex;
 import com.github.minemaniauk.minemaniamenus.command.BaseCommandType;
 import com.github.minemaniauk.minemaniamenus.command.Command;
 import com.github.minemaniauk.minemaniamenus.command.CommandHandler;
 import com.github.minemaniauk.minemaniamenus.command.type.Invites;
 import com.github.minemaniauk.minemaniamenus.command.type.MainMenu;
 import com.github.minemaniauk.minemaniamenus.configuration.ConfigurationManager;
+import com.github.minemaniauk.minemaniamenus.database.UserUpsertQueue;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomChangeNotifier;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomFeed;
+import com.github.minemaniauk.minemaniamenus.gameroom.RoomViewerRegistry;
+import com.github.minemaniauk.minemaniamenus.gameroom.WarpCoordinator;
+import com.github.minemaniauk.minemaniamenus.dependencys.LuckPermsAdapter;
+import com.github.minemaniauk.minemaniamenus.dependencys.LuckPermsDependency;
 import com.github.minemaniauk.minemaniamenus.dependencys.MiniPlaceholdersDependency;
 import com.github.minemaniauk.minemaniamenus.dependencys.ProtocolizeDependency;
 import com.github.smuddgge.squishyconfiguration.ConfigurationFactory;
@@ -49,6 +66,8 @@ import com.google.inject.Inject;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.plugin.Dependency;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
@@ -63,6 +82,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -71,7 +91,10 @@ import java.util.*;
 @Plugin(
         id = "minemaniamenus",
         name = "MineManiaMenus",
-        version = "1.0.0"
+        version = "1.0.0",
+        dependencies = {
+                @Dependency(id = "luckperms", optional = true)
+        }
 )
 public class MineManiaMenus implements MineManiaAPIContract {
 
@@ -82,6 +105,21 @@ public class MineManiaMenus implements MineManiaAPIContract {
 
     private final @NotNull Configuration configuration;
     private final @NotNull MineManiaAPI api;
+    private final @NotNull UserRecordCache userRecordCache;
+    private final @NotNull UserUpsertQueue userUpsertQueue;
+    private final @NotNull VanishIndex vanishIndex;
+    private final @NotNull PlayerCountService playerCountService;
+    private final @NotNull GameRoomFeed gameRoomFeed;
+    private final @NotNull GameRoomChangeNotifier gameRoomChangeNotifier;
+    private final @NotNull RoomViewerRegistry roomViewerRegistry;
+    private final @NotNull SkullCache skullCache;
+    private final @NotNull InviteIndex inviteIndex;
+    private final @NotNull MenuExecutor menuExecutor;
+    private final @NotNull KerbArenaLease arenaLease;
+    private final @NotNull ArenaReserver<Arena, GameType> arenaReserver;
+    private final @NotNull WarpCoordinator warpCoordinator;
+    private final @NotNull UserSessionRegistry userSessionRegistry;
+    private final @NotNull MetricsReporter metricsReporter;
 
     @Inject
     public MineManiaMenus(ProxyServer server, @DataDirectory final Path folder, ComponentLogger componentLogger) {
@@ -95,6 +133,48 @@ public class MineManiaMenus implements MineManiaAPIContract {
                 .setDefaultPath("config.yml");
         this.configuration.load();
 
+        // Set up the user record cache.
+        this.userRecordCache = new UserRecordCache(2000, Duration.ofMinutes(10));
+        this.userUpsertQueue = new UserUpsertQueue(this.userRecordCache, 50);
+        this.vanishIndex = new VanishIndex();
+        this.playerCountService = new PlayerCountService();
+        final Duration minimumRefresh = Duration.ofMillis(
+                this.configuration.getSection("menus").getInteger("refresh_min_millis", 1000)
+        );
+        final Duration maximumRefresh = Duration.ofMillis(
+                this.configuration.getSection("menus").getInteger("refresh_max_millis", 30000)
+        );
+        this.gameRoomChangeNotifier = new GameRoomChangeNotifier();
+        this.gameRoomFeed = new GameRoomFeed(minimumRefresh, maximumRefresh);
+        this.roomViewerRegistry = new RoomViewerRegistry(minimumRefresh, maximumRefresh);
+        this.gameRoomChangeNotifier.subscribe(UUID.randomUUID(), () -> false, change -> {
+            if (change.affectsPublicList()) this.gameRoomFeed.requestPoll();
+            this.roomViewerRegistry.onChange(change.getGameRoomUuid());
+        });
+        this.skullCache = new SkullCache(512);
+        this.inviteIndex = new InviteIndex(Duration.ofSeconds(30));
+        this.menuExecutor = new MenuExecutor(
+                this.configuration.getSection("menus").getInteger("executor_threads", 8),
+                this.configuration.getSection("menus").getInteger("executor_queue_capacity", 256),
+                this.configuration.getSection("menus").getInteger("executor_player_capacity", 16)
+        );
+        this.arenaLease = new KerbArenaLease(
+                this.configuration.getSection("menus").getBoolean("arena_lease_coordinator", true),
+                Duration.ofSeconds(5)
+        );
+        this.arenaReserver = new ArenaReserver<>(
+                new DatabaseArenaStore(),
+                this.arenaLease,
+                Duration.ofMillis(this.configuration.getSection("menus").getInteger("arena_lease_millis", 10000)),
+                5,
+                Duration.ofMillis(50)
+        );
+        this.warpCoordinator = new WarpCoordinator(3, Duration.ofMillis(500));
+        this.userSessionRegistry = new UserSessionRegistry(Duration.ofMillis(
+                this.configuration.getSection("menus").getInteger("permission_cache_millis", 5000)
+        ));
+        this.metricsReporter = new MetricsReporter();
+
         // Set up the mine mania api connection.
         this.api = MineManiaAPI.createAndSet(
                 this.configuration,
@@ -104,16 +184,23 @@ public class MineManiaMenus implements MineManiaAPIContract {
         ConfigurationManager.initialise(folder.toFile());
 
         // Register event listeners.
+        this.gameRoomChangeNotifier.registerListener();
+        this.arenaLease.registerListener();
         this.api.getKerbClient().registerListener(Priority.HIGH, new EventListener<GameRoomInviteEvent>() {
             @Override
             public @Nullable Event onEvent(GameRoomInviteEvent event) {
-                Optional<Player> optionalPlayer = MineManiaMenus.this.getPlayer(
-                        MineManiaMenus.this.getUser(UUID.fromString(event.getGameRoomInvite().toPlayerUuid))
+                MineManiaMenus.this.inviteIndex.add(
+                        UUID.fromString(event.getGameRoomInvite().gameRoomUuid),
+                        UUID.fromString(event.getGameRoomInvite().toPlayerUuid)
                 );
 
-                if (optionalPlayer.isEmpty()) return event;
+                Optional<User> optionalUser = MineManiaMenus.this.userSessionRegistry.getUser(
+                        UUID.fromString(event.getGameRoomInvite().toPlayerUuid)
+                );
 
-                new User(optionalPlayer.get()).sendMessage("&6&l> &7You have been invited to play &f"
+                if (optionalUser.isEmpty()) return event;
+
+                optionalUser.get().sendDynamicMessage("&6&l> &7You have been invited to play &f"
                         + event.getGameRoom().getGameType().getName()
                         + " &7with &f"
                         + event.getGameRoom().getOwner().getName()
@@ -141,6 +228,31 @@ public class MineManiaMenus implements MineManiaAPIContract {
 
         this.reloadCommands();
 
+        // Start writing joined players to the database.
+        this.userUpsertQueue.start(Duration.ofMillis(500));
+
+        // Start cancelling refresh tasks for closed inventories.
+        PublicTaskContainer.getInstance().startLeakCheck(Duration.ofSeconds(30));
+
+        // Keep a user for each connected player.
+        this.server.getEventManager().register(this, this.userSessionRegistry);
+        this.userSessionRegistry.start(Duration.ofSeconds(30));
+
+        // Start indexing vanished players.
+        this.server.getEventManager().register(this, this.vanishIndex);
+        this.vanishIndex.start(Duration.ofSeconds(5));
+
+        // Start counting the players on each server.
+        this.server.getEventManager().register(this, this.playerCountService);
+        this.playerCountService.recount();
+        this.playerCountService.start(Duration.ofMillis(
+                this.configuration.getSection("menus").getInteger("online_count_refresh_millis", 2000)
+        ));
+
+        // Start logging the metrics, unless disabled.
+        int metricsMinutes = this.configuration.getSection("menus").getInteger("metrics_log_minutes", 10);
+        if (metricsMinutes > 0) this.metricsReporter.start(Duration.ofMinutes(metricsMinutes));
+
         // Check for dependencies.
         if (!ProtocolizeDependency.isEnabled()) {
             MessageManager.log("&7[Dependencies] Could not find optional dependency &fProtocolize");
@@ -153,61 +265,112 @@ public class MineManiaMenus implements MineManiaAPIContract {
             MessageManager.log("&7[Dependencies] This optional plugin lets you use mini placeholders, not to be confused with leaf placeholders.");
             MessageManager.log(MiniPlaceholdersDependency.getDependencyMessage());
         }
+
+        if (LuckPermsDependency.isEnabled()) {
+            LuckPermsAdapter.registerListeners();
+        } else {
+            MessageManager.log("&7[Dependencies] Could not find optional dependency &fLuck Perms");
+            MessageManager.log("&7[Dependencies] Permission changes will only be noticed after the permission cache expires.");
+            MessageManager.log(LuckPermsDependency.getDependencyMessage());
+        }
     }
 
     @Subscribe
     public void onPlayerJoin(ServerConnectedEvent event) {
-        final String uuid = event.getPlayer().getUniqueId().toString();
-
-        UserRecord record = this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .getUserRecord(event.getPlayer().getUniqueId())
-                .orElse(null);
 
-        if (record == null) {
-            UserRecord first = new UserRecord();
-            first.mc_name = event.getPlayer().getUsername();
-            first.mc_uuid = uuid;
+        // Only upsert on the first connection, not on server switches.
+        if (event.getPreviousServer().isPresent()) return;
 
-            this.getAPI().getDatabase()
-                    .getTable(UserCollection.class)
-                    .insertRecord(first);
-            return;
-        }
+        this.userUpsertQueue.queue(
+                event.getPlayer().getUniqueId(),
+                event.getPlayer().getUsername()
+        );
+    }
 
-        if (record.getMinecraftUuid().toString().equalsIgnoreCase(uuid)) return;
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
 
-        record.mc_uuid = uuid;
+        this.metricsReporter.stop();
+        PublicTaskContainer.getInstance().stopAllTasks();
+        this.menuExecutor.shutdown(Duration.ofSeconds(5));
+        this.gameRoomChangeNotifier.stop();
 
-        this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .insertRecord(record);
+        // Write any players that are still queued.
+        this.userUpsertQueue.stop();
+        this.userUpsertQueue.flushAll();
     }
 
     @Override
     public @NotNull MineManiaUser getUser(@NotNull UUID uuid) {
-        UserRecord record = this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .getFirstRecord(new Query().match("mc_uuid", uuid.toString()));
+
+        // Online players do not need a database lookup.
+        Player player = this.getProxyServer().getPlayer(uuid).orElse(null);
+        if (player != null) return new MineManiaUser(uuid, player.getUsername());
+
+        UserRecord record = this.userRecordCache.get(uuid);
+
+        if (record == null) {
+            record = this.getAPI().getDatabase()
+                    .getTable(UserCollection.class)
+                    .getFirstRecord(new Query().match("mc_uuid", uuid.toString()));
+
+            if (record != null) this.userRecordCache.put(record);
+        }
 
         if (record == null) {
+            throw new RuntimeException("Player is not in database or online. There uuid is " + uuid);
+        }
+
+        return new MineManiaUser(uuid, record.getMinecraftName());
+    }
+
+    /**
+     * Used to get the users for a collection of uuids.
+     * Online players are taken from the proxy and the rest from
+     * the user record cache, so only players that are offline
+     * and not cached are looked up in the database.
+     *
+     * @param uuids The players' uuids.
+     * @return The users, in the same order as the uuids.
+     * Players that are not online or in the database are left out.
+     */
+    public @NotNull List<MineManiaUser> getUsers(@NotNull Collection<UUID> uuids) {
+        List<MineManiaUser> userList = new ArrayList<>(uuids.size());
+
+        for (UUID uuid : uuids) {
             Player player = this.getProxyServer().getPlayer(uuid).orElse(null);
+            if (player != null) {
+                userList.add(new MineManiaUser(uuid, player.getUsername()));
+                continue;
+            }
 
-            if (player == null) {
-                throw new RuntimeException("Player is not in database or online. There uuid is " + uuid);
+            UserRecord record = this.userRecordCache.get(uuid);
+            if (record == null) {
+                record = this.getAPI().getDatabase()
+                        .getTable(UserCollection.class)
+                        .getFirstRecord(new Query().match("mc_uuid", uuid.toString()));
+
+                if (record == null) continue;
+                this.userRecordCache.put(record);
             }
 
-            return new MineManiaUser(uuid, player.getUsername());
+            userList.add(new MineManiaUser(uuid, record.getMinecraftName()));
         }
 
-        return new MineManiaUser(uuid, record.getMinecraftName());
+        return userList;
     }
 
     @Override
     public @NotNull MineManiaUser getUser(@NotNull String name) {
-        UserRecord record = this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .getFirstRecord(new Query().match("mc_name", name));
+        UserRecord record = this.userRecordCache.get(name);
+
+        if (record == null) {
+            record = this.getAPI().getDatabase()
+                    .getTable(UserCollection.class)
+                    .getFirstRecord(new Query().match("mc_name", name));
+
+            if (record != null) this.userRecordCache.put(record);
+        }
 
         if (record == null) {
             Player player = this.getProxyServer().getPlayer(name).orElse(null);
@@ -274,6 +437,141 @@ public class MineManiaMenus implements MineManiaAPIContract {
         return this.api;
     }
 
+    /**
+     * Used to get the cache that sits in front of
+     * the user collection.
+     *
+     * @return The user record cache.
+     */
+    public @NotNull UserRecordCache getUserRecordCache() {
+        return this.userRecordCache;
+    }
+
+    /**
+     * Used to get the queue that writes joined
+     * players to the user collection.
+     *
+     * @return The user upsert queue.
+     */
+    public @NotNull UserUpsertQueue getUserUpsertQueue() {
+        return this.userUpsertQueue;
+    }
+
+    /**
+     * Used to get the index of vanished players.
+     *
+     * @return The vanish index.
+     */
+    public @NotNull VanishIndex getVanishIndex() {
+        return this.vanishIndex;
+    }
+
+    /**
+     * Used to get the service that counts the
+     * players on each server.
+     *
+     * @return The player count service.
+     */
+    public @NotNull PlayerCountService getPlayerCountService() {
+        return this.playerCountService;
+    }
+
+    /**
+     * Used to get the shared feed of public game rooms.
+     *
+     * @return The game room feed.
+     */
+    public @NotNull GameRoomFeed getGameRoomFeed() {
+        return this.gameRoomFeed;
+    }
+
+    /**
+     * Used to get the notifier used to publish and
+     * listen for game room changes.
+     *
+     * @return The game room change notifier.
+     */
+    public @NotNull GameRoomChangeNotifier getGameRoomChangeNotifier() {
+        return this.gameRoomChangeNotifier;
+    }
+
+    /**
+     * Used to get the registry of players viewing each game room.
+     *
+     * @return The room viewer registry.
+     */
+    public @NotNull RoomViewerRegistry getRoomViewerRegistry() {
+        return this.roomViewerRegistry;
+    }
+
+    /**
+     * Used to get the cache of player head nbt.
+     *
+     * @return The skull cache.
+     */
+    public @NotNull SkullCache getSkullCache() {
+        return this.skullCache;
+    }
+
+    /**
+     * Used to get the index of the players
+     * invited to each game room.
+     *
+     * @return The invite index.
+     */
+    public @NotNull InviteIndex getInviteIndex() {
+        return this.inviteIndex;
+    }
+
+    /**
+     * Used to get the executor for database
+     * work started from menus.
+     *
+     * @return The menu executor.
+     */
+    public @NotNull MenuExecutor getMenuExecutor() {
+        return this.menuExecutor;
+    }
+
+    /**
+     * Used to get the step that reserves
+     * arenas for game rooms.
+     *
+     * @return The arena reserver.
+     */
+    public @NotNull ArenaReserver<Arena, GameType> getArenaReserver() {
+        return this.arenaReserver;
+    }
+
+    /**
+     * Used to get the coordinator that warps
+     * game room players to their arena.
+     *
+     * @return The warp coordinator.
+     */
+    public @NotNull WarpCoordinator getWarpCoordinator() {
+        return this.warpCoordinator;
+    }
+
+    /**
+     * Used to get the registry of users
+     * for the connected players.
+     *
+     * @return The user session registry.
+     */
+    public @NotNull UserSessionRegistry getUserSessionRegistry() {
+        return this.userSessionRegistry;
+    }
+
+    /**
+     * Used to get the reporter that logs the metrics.
+     *
+     * @return The metrics reporter.
+     */
+    public @NotNull MetricsReporter getMetricsReporter() {
+        return this.metricsReporter;
+    }
+
     /**
      * Used to get the number of players online for a specific server.
      *
@@ -292,12 +590,7 @@ public class MineManiaMenus implements MineManiaAPIContract {
      * @return The number of players online, not including vanished players.
      */
     public int getAmountOnline(@NotNull RegisteredServer registeredServer) {
-        int amount = 0;
-        for (Player player : registeredServer.getPlayersConnected()) {
-            if (new User(player).isVanished()) continue;
-            amount++;
-        }
-        return amount;
+        return this.playerCountService.getVisible(registeredServer);
     }
 
     /**
@@ -384,7 +677,7 @@ public class MineManiaMenus implements MineManiaAPIContract {
      */
     public Player getNotVanishablePlayer(RegisteredServer registeredServer) {
         for (Player player : registeredServer.getPlayersConnected()) {
-            User user = new User(player);
+            User user = this.userSessionRegistry.getUser(player);
 
             if (user.isNotVanishable()) return player;
         }
@@ -407,14 +700,13 @@ public class MineManiaMenus implements MineManiaAPIContract {
     public List<User> getFilteredPlayers(String permission, List<String> permissions, boolean includeVanished) {
         List<User> players = new ArrayList<>();
 
-        for (Player player : MineManiaMenus.getInstance().getProxyServer().getAllPlayers()) {
-            User user = new User(player);
-
-            // If the player has the permission node
-            if (!user.hasPermission(permission)) continue;
+        // Get the players whose highest permission is the permission.
+        Set<UUID> playerUuids = this.userSessionRegistry.getTierIndex()
+                .getPlayers(permission, permissions, this.userSessionRegistry.getUsers());
 
-            // Check if it's there the highest permission
-            if (!Objects.equals(user.getHighestPermission(permissions), permission)) continue;
+        for (UUID playerUuid : playerUuids) {
+            User user = this.userSessionRegistry.getUser(playerUuid).orElse(null);
+            if (user == null) continue;
 
             // If includes vanished players and they are not vanished
             if (!includeVanished && user.isVanished()) continue;
@@ -441,7 +733,7 @@ public class MineManiaMenus implements MineManiaAPIContract {
         List<User> players = new ArrayList<>();
 
         for (Player player : server.getPlayersConnected()) {
-            User user = new User(player);
+            User user = this.userSessionRegistry.getUser(player);
 
             // If the player has the permission node
             if (!user.hasPermission(permission)) continue;
@@ -478,7 +770,7 @@ public class MineManiaMenus implements MineManiaAPIContract {
      */
     public User getRandomUser(RegisteredServer server) {
         for (Player player : server.getPlayersConnected()) {
-            return new User(player);
+            return this.userSessionRegistry.getUser(player);
         }
         return null;
     }
@@ -490,10 +782,7 @@ public class MineManiaMenus implements MineManiaAPIContract {
      * @return The instance of the connected player.
      */
     public @NotNull Optional<Player> getPlayer(@NotNull MineManiaUser user) {
-        for (Player player : this.server.getAllPlayers()) {
-            if (player.getUniqueId().equals(user.getUniqueId())) return Optional.of(player);
-        }
-        return Optional.empty();
+        return this.userSessionRegistry.getPlayer(user);
     }
 
     /**
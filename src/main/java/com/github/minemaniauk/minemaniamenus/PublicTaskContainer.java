@@ -20,28 +20,228 @@
 
 package com.github.minemaniauk.minemaniamenus;
 
-import com.github.kerbity.kerb.task.TaskContainer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 
-public class PublicTaskContainer extends TaskContainer {
+/**
+ * Represents the plugin's shared task scheduler.
+ * Tasks are identified by a {@link TaskHandle}, and tasks whose
+ * owner has closed are cancelled by the leak checker.
+ */
+public class PublicTaskContainer {
 
     private static PublicTaskContainer instance;
 
-    public @NotNull TaskContainer runTask(@NotNull Runnable runnable, @NotNull Duration duration, @NotNull String identifier) {
-        return super.runTask(runnable, duration, identifier);
+    private final @NotNull Map<String, TaskHandle> handleMap = new ConcurrentHashMap<>();
+    private @Nullable ScheduledTask leakCheckTask;
+
+    /**
+     * Used to run a task once after a delay.
+     * If a task with the same identifier is running,
+     * it will be cancelled first.
+     *
+     * @param runnable   The task to run.
+     * @param duration   The delay before it runs.
+     * @param identifier The identifier of the task.
+     * @return The task's handle.
+     */
+    public @NotNull TaskHandle runTask(@NotNull Runnable runnable, @NotNull Duration duration, @NotNull String identifier) {
+        return this.runTask(runnable, duration, identifier, TaskHandle.Type.BACKGROUND, () -> false);
+    }
+
+    /**
+     * Used to run a task once after a delay.
+     * If a task with the same identifier is running,
+     * it will be cancelled first.
+     *
+     * @param runnable      The task to run.
+     * @param duration      The delay before it runs.
+     * @param identifier    The identifier of the task.
+     * @param type          The type of task.
+     * @param isOwnerClosed Returns true when the owner of the task has closed.
+     * @return The task's handle.
+     */
+    public @NotNull TaskHandle runTask(@NotNull Runnable runnable,
+                                       @NotNull Duration duration,
+                                       @NotNull String identifier,
+                                       @NotNull TaskHandle.Type type,
+                                       @NotNull BooleanSupplier isOwnerClosed) {
+
+        // The handle is registered before the task is scheduled, so a
+        // task with no delay can not run before it is registered.
+        final TaskHandle handle = new TaskHandle(identifier, type, isOwnerClosed);
+        this.register(handle);
+
+        handle.setScheduledTask(MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), () -> {
+                    this.handleMap.remove(identifier, handle);
+                    if (handle.isCancelled()) return;
+                    runnable.run();
+                })
+                .delay(duration)
+                .schedule()
+        );
+
+        return handle;
+    }
+
+    /**
+     * Used to run a task repeatedly until it is cancelled
+     * or its owner has closed.
+     * If a task with the same identifier is running,
+     * it will be cancelled first.
+     *
+     * @param identifier    The identifier of the task.
+     * @param type          The type of task.
+     * @param runnable      The task to run.
+     * @param interval      The time between each run.
+     * @param isOwnerClosed Returns true when the owner of the task has closed.
+     * @return The task's handle.
+     */
+    public @NotNull TaskHandle runRepeatingTask(@NotNull String identifier,
+                                                @NotNull TaskHandle.Type type,
+                                                @NotNull Runnable runnable,
+                                                @NotNull Duration interval,
+                                                @NotNull BooleanSupplier isOwnerClosed) {
+
+        final TaskHandle handle = new TaskHandle(identifier, type, isOwnerClosed);
+        this.register(handle);
+
+        handle.setScheduledTask(MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), () -> {
+                    if (handle.isCancelled()) return;
+
+                    // Stop running if the owner has closed.
+                    if (handle.isOwnerClosed()) {
+                        handle.cancel();
+                        return;
+                    }
+
+                    runnable.run();
+                })
+                .delay(interval)
+                .repeat(interval)
+                .schedule()
+        );
+
+        return handle;
+    }
+
+    /**
+     * Used to stop a task.
+     *
+     * @param identifier The identifier of the task.
+     * @return This instance.
+     */
+    public @NotNull PublicTaskContainer stopTask(@NotNull String identifier) {
+        TaskHandle handle = this.handleMap.get(identifier);
+        if (handle != null) this.cancel(handle);
+        return this;
+    }
+
+    /**
+     * Used to cancel a task.
+     *
+     * @param handle The task's handle.
+     * @return This instance.
+     */
+    public @NotNull PublicTaskContainer cancel(@NotNull TaskHandle handle) {
+        this.handleMap.remove(handle.getIdentifier(), handle);
+        handle.onCancel();
+        return this;
+    }
+
+    /**
+     * Used to get the amount of tasks that are running.
+     *
+     * @return The amount of active tasks.
+     */
+    public int getActiveTaskCount() {
+        return this.handleMap.size();
+    }
+
+    /**
+     * Used to get the amount of tasks of a type that are running.
+     *
+     * @param type The type of task.
+     * @return The amount of active tasks.
+     */
+    public int getActiveTaskCount(@NotNull TaskHandle.Type type) {
+        return (int) this.handleMap.values().stream()
+                .filter(handle -> handle.getType() == type)
+                .count();
+    }
+
+    /**
+     * Used to cancel any tasks whose owner has closed.
+     * Each leaked task will be logged.
+     *
+     * @return The amount of leaked tasks that were cancelled.
+     */
+    public int checkForLeaks() {
+        int amount = 0;
+
+        for (TaskHandle handle : this.handleMap.values()) {
+            if (!handle.isOwnerClosed()) continue;
+
+            MessageManager.warn("[Tasks] Cancelled leaked task " + handle.getIdentifier() + " as its owner has closed.");
+            this.cancel(handle);
+            amount++;
+        }
+
+        return amount;
+    }
+
+    /**
+     * Used to start checking for leaked tasks at an interval.
+     *
+     * @param interval The time between checks.
+     * @return This instance.
+     */
+    public @NotNull PublicTaskContainer startLeakCheck(@NotNull Duration interval) {
+        if (this.leakCheckTask != null) this.leakCheckTask.cancel();
+
+        this.leakCheckTask = MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), this::checkForLeaks)
+                .delay(interval)
+                .repeat(interval)
+                .schedule();
+        return this;
+    }
+
+    /**
+     * Used to cancel every task.
+     *
+     * @return This instance.
+     */
+    public @NotNull PublicTaskContainer stopAllTasks() {
+        this.handleMap.values().forEach(this::cancel);
+        if (this.leakCheckTask != null) this.leakCheckTask.cancel();
+        this.leakCheckTask = null;
+        return this;
     }
 
-    public @NotNull TaskContainer stopTask(@NotNull String identifier) {
-        return super.stopTask(identifier);
+    private void register(@NotNull TaskHandle handle) {
+        TaskHandle previous = this.handleMap.put(handle.getIdentifier(), handle);
+        if (previous != null) previous.onCancel();
     }
 
-    public static @NotNull PublicTaskContainer getInstance() {
+    /**
+     * Used to get the shared instance of the task container.
+     *
+     * @return The task container.
+     */
+    public static synchronized @NotNull PublicTaskContainer getInstance() {
         if (PublicTaskContainer.instance == null) {
             PublicTaskContainer.instance = new PublicTaskContainer();
         }
 
-        return new PublicTaskContainer();
+        return PublicTaskContainer.instance;
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Represents a task started by the {@link PublicTaskContainer}.
+ * The handle is used to cancel the task, and knows if the
+ * owner of the task, such as an inventory, has been closed.
+ */
+public class TaskHandle {
+
+    private final @NotNull String identifier;
+    private final @NotNull Type type;
+    private final @NotNull BooleanSupplier isOwnerClosed;
+    private volatile ScheduledTask scheduledTask;
+    private volatile boolean cancelled;
+
+    /**
+     * Represents the type of task.
+     */
+    public enum Type {
+
+        /**
+         * A task that refreshes an open inventory.
+         */
+        REFRESH,
+
+        /**
+         * Any other task.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Used to create a task handle.
+     *
+     * @param identifier    The identifier of the task.
+     * @param type          The type of task.
+     * @param isOwnerClosed Returns true when the owner of the task has closed.
+     */
+    protected TaskHandle(@NotNull String identifier, @NotNull Type type, @NotNull BooleanSupplier isOwnerClosed) {
+        this.identifier = identifier;
+        this.type = type;
+        this.isOwnerClosed = isOwnerClosed;
+    }
+
+    /**
+     * Used to get the identifier of the task.
+     *
+     * @return The task's identifier.
+     */
+    public @NotNull String getIdentifier() {
+        return this.identifier;
+    }
+
+    /**
+     * Used to get the type of task.
+     *
+     * @return The task's type.
+     */
+    public @NotNull Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Used to check if the owner of the task has closed.
+     * If it has, the task should no longer be running.
+     *
+     * @return True if the owner has closed.
+     */
+    public boolean isOwnerClosed() {
+        return this.isOwnerClosed.getAsBoolean();
+    }
+
+    /**
+     * Used to check if the task has been cancelled.
+     *
+     * @return True if cancelled.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Used to cancel the task.
+     * The task will also be removed from the container.
+     */
+    public void cancel() {
+        PublicTaskContainer.getInstance().cancel(this);
+    }
+
+    protected void setScheduledTask(@NotNull ScheduledTask scheduledTask) {
+        this.scheduledTask = scheduledTask;
+
+        // Check if the handle was cancelled before
+        // the scheduled task was given to it.
+        if (this.cancelled) scheduledTask.cancel();
+    }
+
+    protected void onCancel() {
+        this.cancelled = true;
+        if (this.scheduledTask != null) this.scheduledTask.cancel();
+    }
+}
@@ -26,15 +26,14 @@ import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ServerConnection;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
-import net.kyori.adventure.title.Title;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <h1>Represents a user connected to one of the servers.</h1>
@@ -46,6 +45,17 @@ public class User {
     private final Player player;
     private RegisteredServer server;
     private final String name;
+    private final long permissionTimeToLiveMillis;
+    private final Map<String, Decision> permissionMap = new ConcurrentHashMap<>();
+
+    /**
+     * Represents a remembered permission result.
+     *
+     * @param value         If the player has the permission.
+     * @param expiresMillis When the result should be checked again.
+     */
+    private record Decision(boolean value, long expiresMillis) {
+    }
 
     /**
      * Used to create a user.
@@ -53,9 +63,20 @@ public class User {
      * @param player The player instance.
      */
     public User(Player player) {
+        this(player, Duration.ofSeconds(5));
+    }
+
+    /**
+     * Used to create a user.
+     *
+     * @param player               The player instance.
+     * @param permissionTimeToLive How long permission results are remembered.
+     */
+    public User(Player player, Duration permissionTimeToLive) {
         this.player = player;
         this.server = null;
         this.name = null;
+        this.permissionTimeToLiveMillis = permissionTimeToLive.toMillis();
     }
 
     /**
@@ -68,6 +89,7 @@ public class User {
         this.player = null;
         this.server = server;
         this.name = name;
+        this.permissionTimeToLiveMillis = 0;
     }
 
     /**
@@ -113,7 +135,7 @@ public class User {
     public String getHighestPermission(List<String> permissions) {
         if (this.player == null) return null;
         for (String permission : permissions) {
-            if (this.player.hasPermission(permission)) return permission;
+            if (this.hasPermission(permission)) return permission;
         }
         return null;
     }
@@ -139,6 +161,8 @@ public class User {
 
     /**
      * Used to check if the user has a permission.
+     * The result is remembered until it expires
+     * or the permissions are invalidated.
      *
      * @param permission Permission to check for.
      * @return True if they have the permission.
@@ -147,7 +171,21 @@ public class User {
         if (this.player == null) return true;
         if (permission == null) return true;
 
-        return this.player.hasPermission(permission);
+        final long now = System.currentTimeMillis();
+        Decision decision = this.permissionMap.get(permission);
+        if (decision != null && decision.expiresMillis() > now) return decision.value();
+
+        final boolean value = this.player.hasPermission(permission);
+        this.permissionMap.put(permission, new Decision(value, now + this.permissionTimeToLiveMillis));
+        return value;
+    }
+
+    /**
+     * Used to forget the remembered permission results,
+     * so they are checked again with the player.
+     */
+    public void invalidatePermissions() {
+        this.permissionMap.clear();
     }
 
     /**
@@ -161,94 +199,20 @@ public class User {
      */
     public void sendMessage(String message) {
         if (this.player == null) return;
-        String[] parts = message.split("::");
-
-        boolean hasTitle = false;
-        Title.Times times = Title.Times.times(
-                Duration.ofMillis(1000),
-                Duration.ofMillis(1000),
-                Duration.ofMillis(1000)
-        );
-
-        String title = "";
-        String subtitle = "";
-
-        // Loop though parts.
-        for (String part : parts) {
-            if (part.equals("")) continue;
-
-            // Check if it's a title part.
-            if (part.startsWith("title ")) {
-                hasTitle = true;
-                title = part.split("=")[1];
-
-                Title.Times temp = this.exstractTimes(part);
-                if (temp != null) times = temp;
-                continue;
-            }
-
-            // Check if it's a subtitle part.
-            if (part.startsWith("subtitle ")) {
-                hasTitle = true;
-                subtitle = part.split("=")[1];
-
-                Title.Times temp = this.exstractTimes(part);
-                if (temp != null) times = temp;
-                continue;
-            }
-
-            // Check if it's an actionbar part.
-            if (part.startsWith("actionbar ")) {
-                String actionbarMessage = part.split("=")[1];
-                this.player.sendActionBar(MessageManager.convertAndParse(actionbarMessage, player));
-                continue;
-            }
-
-            this.player.sendMessage(MessageManager.convertAndParse(part, player));
-        }
-
-        // Check if there is a title to show.
-        if (hasTitle) {
-            this.player.showTitle(Title.title(
-                    MessageManager.convertAndParse(title, player),
-                    MessageManager.convertAndParse(subtitle, player),
-                    times
-            ));
-        }
+        CompiledMessage.of(message).send(this.player);
     }
 
-
     /**
-     * Used to extract the times from a title part.
+     * Used to send a user a message that is different each time,
+     * such as one containing a name or number.
+     * The message is not cached, so it does not replace
+     * messages that are sent often.
      *
-     * @param part The instance of the part.
-     * @return The times.
+     * @param message The message to send.
      */
-    private @Nullable Title.Times exstractTimes(@NotNull String part) {
-        // Get durations. [title, fadeIn, stay, fadeOut, ""]
-        String[] durations = part.split("=")[0].split(" ");
-
-        // Check if there are no durations.
-        if (durations.length < 2 || durations.length == 2 && durations[1].equals("")) {
-            return null;
-        }
-
-        // Get durations.
-        int fadeIn = !durations[1].equals("")
-                ? Integer.parseInt(durations[1]) : 1000;
-
-        int stay = durations.length >= 3 && !durations[2].equals("")
-                ? Integer.parseInt(durations[2]) : 1000;
-
-        int fadeOut = durations.length >= 4 && !durations[3].equals("")
-                ? Integer.parseInt(durations[3]) : 1000;
-
-        // Create durations.
-        return Title.Times.times(
-                Duration.ofMillis(fadeIn),
-                Duration.ofMillis(stay),
-                Duration.ofMillis(fadeOut)
-        );
+    public void sendDynamicMessage(String message) {
+        if (this.player == null) return;
+        CompiledMessage.compile(message).send(this.player);
     }
 
     /**
@@ -365,24 +329,7 @@ public class User {
      */
     public boolean isVanished() {
         if (this.player == null) return false;
-
-        // If they are unable to vanish return false
-        if (this.isNotVanishable()) return false;
-
-        RegisteredServer server = this.getConnectedServer();
-
-        // If they are not connected to a server they are vanished
-        if (server == null) return true;
-
-        Player unableToVanishPlayer = MineManiaMenus.getInstance().getNotVanishablePlayer(server);
-
-        // If there are no players online that cannot vanish,
-        // we assume they are vanished.
-        if (unableToVanishPlayer == null) return true;
-
-        // Check if this player can be seen on the tab list by
-        // players that cannot vanish.
-        return !unableToVanishPlayer.getTabList().containsEntry(this.player.getUniqueId());
+        return MineManiaMenus.getInstance().getVanishIndex().isVanished(this.player);
     }
 
     /**
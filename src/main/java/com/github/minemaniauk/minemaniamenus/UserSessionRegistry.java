@@ -0,0 +1,238 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus;
+
+import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.minemaniamenus.cache.PermissionTierIndex;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.permission.PermissionsSetupEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the registry of users for the connected players.
+ * <p>
+ * Players are resolved with the proxy's uuid index instead of
+ * searching every player. A user is created for each player when they
+ * log in and removed when they disconnect, so the same user is handed
+ * out for the whole session.
+ * <p>
+ * Each user remembers their permission results for the time to live.
+ * They are invalidated sooner when the player switches server or when
+ * their permissions are changed, and the permission tier index
+ * is updated with the player's new permissions.
+ */
+public class UserSessionRegistry {
+
+    private final @NotNull Duration permissionTimeToLive;
+    private final @NotNull Map<UUID, User> userMap = new ConcurrentHashMap<>();
+    private final @NotNull PermissionTierIndex tierIndex = new PermissionTierIndex();
+
+    private TaskHandle task;
+
+    /**
+     * Used to create a user session registry.
+     *
+     * @param permissionTimeToLive How long users remember permission results.
+     */
+    public UserSessionRegistry(@NotNull Duration permissionTimeToLive) {
+        this.permissionTimeToLive = permissionTimeToLive;
+    }
+
+    /**
+     * Used to get a connected player.
+     *
+     * @param uuid The player's uuid.
+     * @return The optional player.
+     */
+    public @NotNull Optional<Player> getPlayer(@NotNull UUID uuid) {
+        return MineManiaMenus.getInstance().getProxyServer().getPlayer(uuid);
+    }
+
+    /**
+     * Used to get the connected player for a mine mania user.
+     *
+     * @param user The mine mania user.
+     * @return The optional player.
+     */
+    public @NotNull Optional<Player> getPlayer(@NotNull MineManiaUser user) {
+        return this.getPlayer(user.getUniqueId());
+    }
+
+    /**
+     * Used to get the user for a connected player.
+     * The same user is returned for the rest of the player's session.
+     * If the player has disconnected, a user is returned
+     * but it is not kept.
+     *
+     * @param player The instance of the player.
+     * @return The player's user.
+     */
+    public @NotNull User getUser(@NotNull Player player) {
+        User user = this.userMap.get(player.getUniqueId());
+        if (user != null && user.getPlayer() == player) return user;
+
+        user = new User(player, this.permissionTimeToLive);
+
+        // Check if the player has disconnected, as tasks can
+        // finish after the player's session has been removed.
+        if (!player.isActive()) return user;
+
+        // The player has a new session.
+        this.userMap.put(player.getUniqueId(), user);
+
+        // Check the player did not disconnect while it was being kept.
+        if (!player.isActive()) this.userMap.remove(player.getUniqueId(), user);
+        return user;
+    }
+
+    /**
+     * Used to get the users of every session.
+     *
+     * @return The collection of users.
+     */
+    public @NotNull Collection<User> getUsers() {
+        return this.userMap.values();
+    }
+
+    /**
+     * Used to get the index of the highest
+     * permission tier each player holds.
+     *
+     * @return The permission tier index.
+     */
+    public @NotNull PermissionTierIndex getTierIndex() {
+        return this.tierIndex;
+    }
+
+    /**
+     * Used to get the user for a connected player.
+     *
+     * @param uuid The player's uuid.
+     * @return The optional user.
+     */
+    public @NotNull Optional<User> getUser(@NotNull UUID uuid) {
+        return this.getPlayer(uuid).map(this::getUser);
+    }
+
+    /**
+     * Used to invalidate the remembered permissions of a player.
+     * This should be called when the player's permissions change.
+     *
+     * @param uuid The player's uuid.
+     */
+    public void invalidatePermissions(@NotNull UUID uuid) {
+        User user = this.userMap.get(uuid);
+        if (user == null) return;
+
+        user.invalidatePermissions();
+        this.tierIndex.update(user);
+    }
+
+    /**
+     * Used to invalidate the remembered permissions of every user.
+     */
+    public void invalidatePermissions() {
+        for (User user : this.userMap.values()) {
+            user.invalidatePermissions();
+            this.tierIndex.update(user);
+        }
+    }
+
+    /**
+     * Used to start updating the permission tier index,
+     * in case permissions changed without an event.
+     *
+     * @param interval The interval between updates.
+     * @return This instance.
+     */
+    public @NotNull UserSessionRegistry start(@NotNull Duration interval) {
+        this.task = PublicTaskContainer.getInstance().runRepeatingTask(
+                "userSessionRegistry",
+                TaskHandle.Type.BACKGROUND,
+                () -> {
+                    for (User user : this.userMap.values()) {
+                        this.tierIndex.update(user);
+                    }
+                },
+                interval,
+                () -> false
+        );
+        return this;
+    }
+
+    /**
+     * Used to stop updating the permission tier index.
+     *
+     * @return This instance.
+     */
+    public @NotNull UserSessionRegistry stop() {
+        if (this.task != null) this.task.cancel();
+        return this;
+    }
+
+    /**
+     * Used to get the amount of sessions held.
+     *
+     * @return The amount of sessions.
+     */
+    public int getSize() {
+        return this.userMap.size();
+    }
+
+    @Subscribe(order = PostOrder.FIRST)
+    public void onPostLogin(PostLoginEvent event) {
+        User user = new User(event.getPlayer(), this.permissionTimeToLive);
+        this.userMap.put(event.getPlayer().getUniqueId(), user);
+        this.tierIndex.update(user);
+    }
+
+    @Subscribe(order = PostOrder.FIRST)
+    public void onServerConnected(ServerConnectedEvent event) {
+        this.getUser(event.getPlayer());
+        this.invalidatePermissions(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onPermissionsSetup(PermissionsSetupEvent event) {
+        if (!(event.getSubject() instanceof Player player)) return;
+        this.invalidatePermissions(player.getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        User user = this.userMap.get(event.getPlayer().getUniqueId());
+        if (user == null || user.getPlayer() != event.getPlayer()) return;
+        this.userMap.remove(event.getPlayer().getUniqueId(), user);
+        this.tierIndex.remove(event.getPlayer().getUniqueId());
+    }
+}
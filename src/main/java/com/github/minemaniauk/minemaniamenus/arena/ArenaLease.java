@@ -0,0 +1,58 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Represents a lease that only one holder can have at a time.
+ * <p>
+ * Arenas are found and claimed while holding the lease for their
+ * game type, so two game rooms can never claim the same arena.
+ * A lease is held until it is released or its duration has passed,
+ * so a holder that stops responding does not block other holders.
+ */
+public interface ArenaLease {
+
+    /**
+     * Used to acquire the lease for a key.
+     * This fails if another holder has the lease
+     * and its duration has not passed.
+     *
+     * @param key      The key to lease.
+     * @param holder   The identifier of the holder.
+     * @param duration How long the lease is held for if not released.
+     * @return True if the lease was acquired.
+     */
+    boolean acquire(@NotNull String key, @NotNull UUID holder, @NotNull Duration duration);
+
+    /**
+     * Used to release the lease for a key.
+     * This does nothing if the holder no longer has the lease.
+     *
+     * @param key    The key to release.
+     * @param holder The identifier of the holder.
+     */
+    void release(@NotNull String key, @NotNull UUID holder);
+}
@@ -0,0 +1,132 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import com.github.kerbity.kerb.packet.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Represents a kerb event used to acquire and
+ * release arena leases from the coordinating proxy.
+ */
+public class ArenaLeaseEvent extends Event {
+
+    /**
+     * Represents the kinds of lease event.
+     */
+    public enum Kind {
+        ACQUIRE,
+        RELEASE,
+        GRANTED,
+        DENIED
+    }
+
+    private final @NotNull Kind kind;
+    private final @NotNull String requestUuid;
+    private final @NotNull String key;
+    private final @NotNull String holderUuid;
+    private final long durationMillis;
+
+    /**
+     * Used to create an arena lease event.
+     *
+     * @param kind           The kind of event.
+     * @param requestUuid    The identifier of the request this is for.
+     * @param key            The key being leased.
+     * @param holderUuid     The identifier of the holder.
+     * @param durationMillis How long the lease is held for, in milliseconds.
+     */
+    public ArenaLeaseEvent(@NotNull Kind kind,
+                           @NotNull UUID requestUuid,
+                           @NotNull String key,
+                           @NotNull UUID holderUuid,
+                           long durationMillis) {
+
+        this.kind = kind;
+        this.requestUuid = requestUuid.toString();
+        this.key = key;
+        this.holderUuid = holderUuid.toString();
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Used to create the answer to this request.
+     *
+     * @param granted If the lease was acquired.
+     * @return The answer.
+     */
+    public @NotNull ArenaLeaseEvent createAnswer(boolean granted) {
+        return new ArenaLeaseEvent(
+                granted ? Kind.GRANTED : Kind.DENIED,
+                this.getRequestUuid(),
+                this.key,
+                this.getHolderUuid(),
+                this.durationMillis
+        );
+    }
+
+    /**
+     * Used to get the kind of event.
+     *
+     * @return The kind of event.
+     */
+    public @NotNull Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Used to get the identifier of the request this is for.
+     *
+     * @return The request's identifier.
+     */
+    public @NotNull UUID getRequestUuid() {
+        return UUID.fromString(this.requestUuid);
+    }
+
+    /**
+     * Used to get the key being leased.
+     *
+     * @return The key.
+     */
+    public @NotNull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Used to get the identifier of the holder.
+     *
+     * @return The holder's identifier.
+     */
+    public @NotNull UUID getHolderUuid() {
+        return UUID.fromString(this.holderUuid);
+    }
+
+    /**
+     * Used to get how long the lease is held for.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getDurationMillis() {
+        return this.durationMillis;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the step that reserves an arena for a game room.
+ * <p>
+ * The lease for the game type is acquired, then an available arena
+ * is found, claimed and read back before the lease is released. As
+ * only one holder can have the lease, two game rooms can never claim
+ * the same arena, even when the store can not claim atomically.
+ * If the lease is held by another game room, it is tried again
+ * after a short delay, up to the maximum amount of attempts.
+ *
+ * @param <A> The type of arena.
+ * @param <T> The type used to describe the game.
+ */
+public class ArenaReserver<A, T> {
+
+    private final @NotNull ArenaStore<A, T> store;
+    private final @NotNull ArenaLease lease;
+    private final @NotNull Duration leaseDuration;
+    private final int maxAttempts;
+    private final @NotNull Duration retryDelay;
+
+    private final @NotNull AtomicLong reservations = new AtomicLong();
+    private final @NotNull AtomicLong conflicts = new AtomicLong();
+    private final @NotNull AtomicLong exhausted = new AtomicLong();
+
+    /**
+     * Used to create an arena reserver.
+     *
+     * @param store         The store to claim arenas from.
+     * @param lease         The lease held while claiming.
+     * @param leaseDuration How long the lease is held for if not released.
+     *                      Finding and claiming an arena must take less time than this.
+     * @param maxAttempts   The maximum amount of times to try.
+     * @param retryDelay    How long to wait before trying again,
+     *                      multiplied by the amount of attempts.
+     */
+    public ArenaReserver(@NotNull ArenaStore<A, T> store,
+                         @NotNull ArenaLease lease,
+                         @NotNull Duration leaseDuration,
+                         int maxAttempts,
+                         @NotNull Duration retryDelay) {
+
+        this.store = store;
+        this.lease = lease;
+        this.leaseDuration = leaseDuration;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Used to reserve an arena for a game room.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param gameType     The type of game.
+     * @param players      The amount of players in the game room.
+     * @return The reserved arena or empty if
+     * there were no arenas that could be claimed.
+     */
+    public @NotNull Optional<A> reserve(@NotNull UUID gameRoomUuid, @NotNull T gameType, int players) {
+        final String key = "arena:" + gameType;
+        final UUID holder = UUID.randomUUID();
+
+        for (int attempt = 0; attempt < this.maxAttempts; attempt++) {
+            final long expiresMillis = System.currentTimeMillis() + this.leaseDuration.toMillis();
+
+            // Check if another game room is claiming an arena.
+            if (!this.lease.acquire(key, holder, this.leaseDuration)) {
+                this.conflicts.incrementAndGet();
+                if (!this.sleep(this.retryDelay.multipliedBy(attempt + 1))) break;
+                continue;
+            }
+
+            try {
+                A arena = this.store.findAvailable(gameType, players);
+                if (arena == null) return Optional.empty();
+
+                // Check if the lease ran out while finding the arena,
+                // as another game room could now have the lease.
+                if (System.currentTimeMillis() >= expiresMillis) {
+                    this.conflicts.incrementAndGet();
+                    continue;
+                }
+
+                if (this.store.claim(arena, gameRoomUuid) && this.store.verify(arena, gameRoomUuid)) {
+                    this.reservations.incrementAndGet();
+                    return Optional.of(arena);
+                }
+
+                this.conflicts.incrementAndGet();
+
+            } finally {
+                this.lease.release(key, holder);
+            }
+        }
+
+        this.exhausted.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Used to get the amount of arenas reserved.
+     *
+     * @return The amount of reservations.
+     */
+    public long getReservations() {
+        return this.reservations.get();
+    }
+
+    /**
+     * Used to get the amount of times the lease was held
+     * by another game room, or a claim could not be read back.
+     *
+     * @return The amount of conflicts.
+     */
+    public long getConflicts() {
+        return this.conflicts.get();
+    }
+
+    /**
+     * Used to get the amount of times the
+     * maximum amount of attempts was reached.
+     *
+     * @return The amount of exhausted reservations.
+     */
+    public long getExhausted() {
+        return this.exhausted.get();
+    }
+
+    private boolean sleep(@NotNull Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Represents where arenas are stored and claimed from.
+ * <p>
+ * Stores do not need to claim atomically, as arenas are only
+ * found and claimed while holding the {@link ArenaLease}
+ * for their game type.
+ *
+ * @param <A> The type of arena.
+ * @param <T> The type used to describe the game.
+ */
+public interface ArenaStore<A, T> {
+
+    /**
+     * Used to find an arena that has not been claimed.
+     *
+     * @param gameType The type of game.
+     * @param players  The amount of players the arena must hold.
+     * @return The arena or null if there are none available.
+     */
+    @Nullable A findAvailable(@NotNull T gameType, int players);
+
+    /**
+     * Used to claim an arena for a game room.
+     *
+     * @param arena        The arena to claim.
+     * @param gameRoomUuid The game room claiming it.
+     * @return True if the claim was written.
+     */
+    boolean claim(@NotNull A arena, @NotNull UUID gameRoomUuid);
+
+    /**
+     * Used to check that a claim can be read back,
+     * before the lease is released.
+     *
+     * @param arena        The claimed arena.
+     * @param gameRoomUuid The game room that claimed it.
+     * @return True if the game room has the arena.
+     */
+    default boolean verify(@NotNull A arena, @NotNull UUID gameRoomUuid) {
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import com.github.minemaniauk.api.game.Arena;
+import com.github.minemaniauk.api.game.GameType;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Represents the arenas stored in the database.
+ * <p>
+ * The arena records do not support compare and set, so a claim
+ * is a plain write. It is only safe because arenas are found and
+ * claimed while holding the lease for their game type, and the
+ * claim is read back before the lease is released.
+ */
+public class DatabaseArenaStore implements ArenaStore<Arena, GameType> {
+
+    @Override
+    public @Nullable Arena findAvailable(@NotNull GameType gameType, int players) {
+        return MineManiaMenus.getInstance().getAPI()
+                .getGameManager()
+                .getFirstAvailableArena(gameType, players)
+                .orElse(null);
+    }
+
+    @Override
+    public boolean claim(@NotNull Arena arena, @NotNull UUID gameRoomUuid) {
+        arena.setGameRoomIdentifier(gameRoomUuid);
+        arena.save();
+        return true;
+    }
+
+    @Override
+    public boolean verify(@NotNull Arena arena, @NotNull UUID gameRoomUuid) {
+        Optional<Arena> optionalArena = MineManiaMenus.getInstance().getAPI()
+                .getGameManager()
+                .getArena(gameRoomUuid);
+
+        return optionalArena.isPresent()
+                && optionalArena.get().getServerName().equals(arena.getServerName());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import com.github.kerbity.kerb.client.listener.EventListener;
+import com.github.kerbity.kerb.packet.event.Event;
+import com.github.kerbity.kerb.packet.event.Priority;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents arena leases coordinated over kerb.
+ * <p>
+ * One proxy is the coordinator and holds every lease in a
+ * {@link LocalArenaLease}, which acquires each key atomically.
+ * The other proxies ask the coordinator for a lease over kerb
+ * and wait for its answer. Exactly one proxy should have
+ * {@code menus.arena_lease_coordinator} set to true, otherwise
+ * each coordinator hands out its own leases.
+ */
+public class KerbArenaLease implements ArenaLease {
+
+    private final boolean coordinator;
+    private final @NotNull Duration timeout;
+    private final @NotNull LocalArenaLease localLease = new LocalArenaLease();
+    private final @NotNull Map<UUID, CompletableFuture<Boolean>> pendingMap = new ConcurrentHashMap<>();
+
+    /**
+     * Used to create a kerb arena lease.
+     *
+     * @param coordinator If this proxy holds the leases.
+     * @param timeout     How long to wait for the coordinator to answer.
+     */
+    public KerbArenaLease(boolean coordinator, @NotNull Duration timeout) {
+        this.coordinator = coordinator;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean acquire(@NotNull String key, @NotNull UUID holder, @NotNull Duration duration) {
+        if (this.coordinator) return this.localLease.acquire(key, holder, duration);
+
+        final UUID requestUuid = UUID.randomUUID();
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        this.pendingMap.put(requestUuid, future);
+
+        try {
+            MineManiaMenus.getInstance().getAPI().getKerbClient().callEvent(new ArenaLeaseEvent(
+                    ArenaLeaseEvent.Kind.ACQUIRE, requestUuid, key, holder, duration.toMillis()
+            ));
+            return future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException exception) {
+            MessageManager.warn("[Arenas] The arena lease coordinator did not answer in time. "
+                    + "Check that one proxy has menus.arena_lease_coordinator set to true.");
+
+            // The coordinator may still grant the lease, so give it back.
+            this.release(key, holder);
+            return false;
+
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+
+        } catch (Exception exception) {
+            MessageManager.warn("[Arenas] Unable to acquire the arena lease " + key + ".");
+            exception.printStackTrace();
+            return false;
+
+        } finally {
+            this.pendingMap.remove(requestUuid);
+        }
+    }
+
+    @Override
+    public void release(@NotNull String key, @NotNull UUID holder) {
+        if (this.coordinator) {
+            this.localLease.release(key, holder);
+            return;
+        }
+
+        try {
+            MineManiaMenus.getInstance().getAPI().getKerbClient().callEvent(new ArenaLeaseEvent(
+                    ArenaLeaseEvent.Kind.RELEASE, UUID.randomUUID(), key, holder, 0
+            ));
+        } catch (Exception exception) {
+            MessageManager.warn("[Arenas] Unable to release the arena lease " + key + ", it will expire instead.");
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Used to register the kerb listener for lease requests and answers.
+     *
+     * @return This instance.
+     */
+    public @NotNull KerbArenaLease registerListener() {
+        MineManiaMenus.getInstance().getAPI().getKerbClient().registerListener(Priority.HIGH, new EventListener<ArenaLeaseEvent>() {
+            @Override
+            public @Nullable Event onEvent(ArenaLeaseEvent event) {
+                KerbArenaLease.this.onReceive(event);
+                return event;
+            }
+        });
+        return this;
+    }
+
+    private void onReceive(@NotNull ArenaLeaseEvent event) {
+        switch (event.getKind()) {
+            case ACQUIRE -> {
+                if (!this.coordinator) return;
+
+                final boolean granted = this.localLease.acquire(
+                        event.getKey(), event.getHolderUuid(), Duration.ofMillis(event.getDurationMillis())
+                );
+
+                // Answer without holding up the kerb listener.
+                MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                        .buildTask(MineManiaMenus.getInstance(), () -> MineManiaMenus.getInstance()
+                                .getAPI().getKerbClient().callEvent(event.createAnswer(granted)))
+                        .schedule();
+            }
+            case RELEASE -> {
+                if (!this.coordinator) return;
+                this.localLease.release(event.getKey(), event.getHolderUuid());
+            }
+            default -> {
+                final CompletableFuture<Boolean> future = this.pendingMap.get(event.getRequestUuid());
+                if (future == null) return;
+                future.complete(event.getKind() == ArenaLeaseEvent.Kind.GRANTED);
+            }
+        }
+    }
+}
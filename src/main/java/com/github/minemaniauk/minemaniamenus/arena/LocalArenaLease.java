@@ -0,0 +1,66 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents leases held in the memory of this server.
+ * Each key is acquired atomically, so only one holder
+ * can have it until it is released or expires.
+ */
+public class LocalArenaLease implements ArenaLease {
+
+    private final @NotNull Map<String, Holder> holderMap = new ConcurrentHashMap<>();
+
+    /**
+     * Represents the holder of a lease.
+     *
+     * @param holder        The identifier of the holder.
+     * @param expiresMillis When the lease expires.
+     */
+    private record Holder(@NotNull UUID holder, long expiresMillis) {
+    }
+
+    @Override
+    public boolean acquire(@NotNull String key, @NotNull UUID holder, @NotNull Duration duration) {
+        final long now = System.currentTimeMillis();
+        final Holder requested = new Holder(holder, now + duration.toMillis());
+
+        final Holder current = this.holderMap.compute(key, (ignored, existing) -> {
+            if (existing == null || existing.expiresMillis() <= now) return requested;
+            if (existing.holder().equals(holder)) return requested;
+            return existing;
+        });
+
+        return current == requested;
+    }
+
+    @Override
+    public void release(@NotNull String key, @NotNull UUID holder) {
+        this.holderMap.computeIfPresent(key, (ignored, existing) -> existing.holder().equals(holder) ? null : existing);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a bounded cache of parsed components,
+ * keyed by the raw message they were parsed from.
+ * When full, the least recently used component is removed.
+ */
+public class ComponentCache {
+
+    private final @NotNull Map<String, Component> componentMap;
+
+    private final @NotNull AtomicLong hits = new AtomicLong();
+    private final @NotNull AtomicLong misses = new AtomicLong();
+
+    /**
+     * Used to create a component cache.
+     *
+     * @param maxSize The maximum amount of components to hold.
+     */
+    public ComponentCache(int maxSize) {
+        this.componentMap = new LinkedHashMap<>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Used to get a cached component.
+     *
+     * @param message The raw message.
+     * @return The component or null if it is not cached.
+     */
+    public @Nullable Component get(@NotNull String message) {
+        Component component;
+        synchronized (this.componentMap) {
+            component = this.componentMap.get(message);
+        }
+
+        if (component == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return component;
+    }
+
+    /**
+     * Used to add a component to the cache.
+     *
+     * @param message   The raw message.
+     * @param component The parsed component.
+     * @return This instance.
+     */
+    public @NotNull ComponentCache put(@NotNull String message, @NotNull Component component) {
+        synchronized (this.componentMap) {
+            this.componentMap.put(message, component);
+        }
+        return this;
+    }
+
+    /**
+     * Used to remove every component from the cache.
+     *
+     * @return This instance.
+     */
+    public @NotNull ComponentCache clear() {
+        synchronized (this.componentMap) {
+            this.componentMap.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the amount of components in the cache.
+     *
+     * @return The amount of cached components.
+     */
+    public int getSize() {
+        synchronized (this.componentMap) {
+            return this.componentMap.size();
+        }
+    }
+
+    /**
+     * Used to get the amount of messages served by the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Used to get the amount of messages that had to be parsed.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Used to get the percentage of messages
+     * served by the cache.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long total = this.getHits() + this.getMisses();
+        if (total == 0) return 0;
+        return (double) this.getHits() / total;
+    }
+}
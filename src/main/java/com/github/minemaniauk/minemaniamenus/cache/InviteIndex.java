@@ -0,0 +1,188 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.api.database.collection.GameRoomInviteCollection;
+import com.github.minemaniauk.api.database.record.GameRoomInviteRecord;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.github.smuddgge.squishydatabase.Query;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents an index of the players invited to each game room.
+ * <p>
+ * A game room's invites are loaded with a single query and then kept
+ * up to date from invite events and from invites being accepted or
+ * declined. The invites are loaded again after the time to live,
+ * in case an invite was changed on another server.
+ */
+public class InviteIndex {
+
+    private final long timeToLiveMillis;
+    private final @NotNull Map<UUID, Entry> roomMap = new ConcurrentHashMap<>();
+
+    private final @NotNull AtomicLong loads = new AtomicLong();
+
+    /**
+     * Represents the invites for a game room.
+     *
+     * @param invitedSet   The uuids of the invited players.
+     * @param loadedMillis The time the invites were loaded.
+     */
+    private record Entry(@NotNull Set<UUID> invitedSet, long loadedMillis) {
+    }
+
+    /**
+     * Used to create an invite index.
+     *
+     * @param timeToLive How long a game room's invites are valid for.
+     */
+    public InviteIndex(@NotNull Duration timeToLive) {
+        this.timeToLiveMillis = timeToLive.toMillis();
+    }
+
+    /**
+     * Used to get the players invited to a game room.
+     * If the invites are not loaded, this will query the database once.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @return An unmodifiable view of the invited player uuids.
+     */
+    public @NotNull Set<UUID> getInvitedSet(@NotNull UUID gameRoomUuid) {
+        Entry entry = this.roomMap.get(gameRoomUuid);
+
+        if (entry == null || this.isExpired(entry)) {
+            entry = this.load(gameRoomUuid);
+        }
+
+        return Collections.unmodifiableSet(entry.invitedSet());
+    }
+
+    /**
+     * Used to get which of the players have
+     * been invited to a game room.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param playerUuids  The players to check.
+     * @return The uuids of the players that have been invited.
+     */
+    public @NotNull Set<UUID> getInvited(@NotNull UUID gameRoomUuid, @NotNull Collection<UUID> playerUuids) {
+        Set<UUID> invitedSet = this.getInvitedSet(gameRoomUuid);
+        Set<UUID> result = new HashSet<>();
+
+        for (UUID playerUuid : playerUuids) {
+            if (invitedSet.contains(playerUuid)) result.add(playerUuid);
+        }
+
+        return result;
+    }
+
+    /**
+     * Used to check if a player has been invited to a game room.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param playerUuid   The player's uuid.
+     * @return True if the player has been invited.
+     */
+    public boolean isInvited(@NotNull UUID gameRoomUuid, @NotNull UUID playerUuid) {
+        return this.getInvitedSet(gameRoomUuid).contains(playerUuid);
+    }
+
+    /**
+     * Used to add an invite to the index.
+     * If the game room's invites are not loaded,
+     * they will include this invite when they are.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param playerUuid   The invited player's uuid.
+     * @return This instance.
+     */
+    public @NotNull InviteIndex add(@NotNull UUID gameRoomUuid, @NotNull UUID playerUuid) {
+        Entry entry = this.roomMap.get(gameRoomUuid);
+        if (entry != null) entry.invitedSet().add(playerUuid);
+        return this;
+    }
+
+    /**
+     * Used to remove an invite from the index.
+     * This should be called when an invite is accepted or declined.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param playerUuid   The invited player's uuid.
+     * @return This instance.
+     */
+    public @NotNull InviteIndex remove(@NotNull UUID gameRoomUuid, @NotNull UUID playerUuid) {
+        Entry entry = this.roomMap.get(gameRoomUuid);
+        if (entry != null) entry.invitedSet().remove(playerUuid);
+        return this;
+    }
+
+    /**
+     * Used to remove a game room's invites from the index,
+     * so they are loaded again when next needed.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @return This instance.
+     */
+    public @NotNull InviteIndex invalidate(@NotNull UUID gameRoomUuid) {
+        this.roomMap.remove(gameRoomUuid);
+        return this;
+    }
+
+    /**
+     * Used to get the amount of times invites
+     * have been loaded from the database.
+     *
+     * @return The amount of loads.
+     */
+    public long getLoads() {
+        return this.loads.get();
+    }
+
+    private @NotNull Entry load(@NotNull UUID gameRoomUuid) {
+        Set<UUID> invitedSet = ConcurrentHashMap.newKeySet();
+
+        for (GameRoomInviteRecord record : MineManiaMenus.getInstance().getAPI().getDatabase()
+                .getTable(GameRoomInviteCollection.class)
+                .getRecordList(new Query().match("gameRoomUuid", gameRoomUuid.toString()))) {
+
+            invitedSet.add(UUID.fromString(record.toPlayerUuid));
+        }
+
+        this.loads.incrementAndGet();
+
+        // Remove the game rooms that have not been used recently.
+        this.roomMap.values().removeIf(this::isExpired);
+
+        Entry entry = new Entry(invitedSet, System.currentTimeMillis());
+        this.roomMap.put(gameRoomUuid, entry);
+        return entry;
+    }
+
+    private boolean isExpired(@NotNull Entry entry) {
+        return System.currentTimeMillis() - entry.loadedMillis() > this.timeToLiveMillis;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.minemaniamenus.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents an index of the highest permission each player holds
+ * from a list of permission tiers.
+ * <p>
+ * A tier list is indexed the first time it is queried. After that, a
+ * player is only checked again when they are updated, for example when
+ * their permissions change, instead of on every query.
+ */
+public class PermissionTierIndex {
+
+    /**
+     * The tier used for players without any of the permissions.
+     */
+    private static final @NotNull String NO_TIER = "";
+
+    private final @NotNull Map<List<String>, Tiers> tiersMap = new ConcurrentHashMap<>();
+
+    /**
+     * Represents the index for one list of permission tiers.
+     *
+     * @param permissionList The permissions, highest first.
+     * @param playerMap      The highest tier of each player.
+     * @param tierMap        The players in each tier.
+     */
+    private record Tiers(@NotNull List<String> permissionList,
+                         @NotNull Map<UUID, String> playerMap,
+                         @NotNull Map<String, Set<UUID>> tierMap) {
+
+        private void update(@NotNull UUID playerUuid, @NotNull User user) {
+            String highest = user.getHighestPermission(this.permissionList);
+            String tier = highest == null ? NO_TIER : highest;
+
+            // Move the player between tiers while their entry is locked,
+            // so updates at the same time can not leave them in two tiers.
+            this.playerMap.compute(playerUuid, (key, previous) -> {
+                if (tier.equals(previous)) return previous;
+
+                if (previous != null) this.tierMap.get(previous).remove(playerUuid);
+                this.tierMap.computeIfAbsent(tier, name -> ConcurrentHashMap.newKeySet()).add(playerUuid);
+                return tier;
+            });
+        }
+
+        private void remove(@NotNull UUID playerUuid) {
+            this.playerMap.computeIfPresent(playerUuid, (key, previous) -> {
+                this.tierMap.get(previous).remove(playerUuid);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Used to get the players whose highest permission
+     * from a list of permissions is the given permission.
+     *
+     * @param permission     The permission, or null for players
+     *                       without any of the permissions.
+     * @param permissionList The permissions, highest first.
+     * @param userList       The connected users, used the first
+     *                       time the list of permissions is indexed.
+     * @return The uuids of the players in the tier.
+     */
+    public @NotNull Set<UUID> getPlayers(@Nullable String permission,
+                                         @NotNull List<String> permissionList,
+                                         @NotNull Collection<User> userList) {
+
+        Tiers tiers = this.tiersMap.computeIfAbsent(List.copyOf(permissionList), key -> {
+            Tiers created = new Tiers(key, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            for (User user : userList) {
+                created.update(user.getPlayer().getUniqueId(), user);
+            }
+            return created;
+        });
+
+        Set<UUID> playerSet = tiers.tierMap().get(permission == null ? NO_TIER : permission);
+        if (playerSet == null) return Set.of();
+        return new HashSet<>(playerSet);
+    }
+
+    /**
+     * Used to check a player again in every indexed list of permissions.
+     *
+     * @param user The player's user.
+     * @return This instance.
+     */
+    public @NotNull PermissionTierIndex update(@NotNull User user) {
+        if (user.getPlayer() == null) return this;
+
+        for (Tiers tiers : this.tiersMap.values()) {
+            tiers.update(user.getPlayer().getUniqueId(), user);
+        }
+        return this;
+    }
+
+    /**
+     * Used to remove a player from the index.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull PermissionTierIndex remove(@NotNull UUID playerUuid) {
+        for (Tiers tiers : this.tiersMap.values()) {
+            tiers.remove(playerUuid);
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the amount of permission lists indexed.
+     *
+     * @return The amount of lists.
+     */
+    public int getSize() {
+        return this.tiersMap.size();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the amount of players on each server.
+ * Counts are updated as players connect, switch server and
+ * disconnect, so reading them does not iterate the server's players.
+ * <p>
+ * Menus should use the displayed count, which is copied from
+ * the live count at the refresh interval.
+ */
+public class PlayerCountService {
+
+    private final @NotNull Map<String, Counter> counterMap = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Membership> membershipMap = new ConcurrentHashMap<>();
+    private @Nullable ScheduledTask task;
+
+    /**
+     * Represents the counts for a single server.
+     */
+    private static class Counter {
+        private final @NotNull AtomicInteger total = new AtomicInteger();
+        private final @NotNull AtomicInteger visible = new AtomicInteger();
+        private volatile int displayed;
+    }
+
+    /**
+     * Represents the server a player is counted on.
+     *
+     * @param serverName The name of the server.
+     * @param visible    If the player is counted as visible.
+     */
+    private record Membership(@NotNull String serverName, boolean visible) {
+    }
+
+    /**
+     * Used to get the amount of players on a server.
+     *
+     * @param server The instance of the server.
+     * @return The total amount of players.
+     */
+    public int getTotal(@NotNull RegisteredServer server) {
+        return this.getCounter(server.getServerInfo().getName()).total.get();
+    }
+
+    /**
+     * Used to get the amount of players on a server
+     * that are not vanished.
+     *
+     * @param server The instance of the server.
+     * @return The amount of visible players.
+     */
+    public int getVisible(@NotNull RegisteredServer server) {
+        return this.getCounter(server.getServerInfo().getName()).visible.get();
+    }
+
+    /**
+     * Used to get the amount of visible players on a server
+     * as of the last refresh.
+     *
+     * @param serverName The name of the server, which is not case-sensitive.
+     * @return The amount of visible players to display.
+     */
+    public int getDisplayed(@NotNull String serverName) {
+        return this.getCounter(serverName).displayed;
+    }
+
+    /**
+     * Used to update if a player is counted as visible.
+     * This is called by the {@link VanishIndex} when
+     * it re-indexes the player.
+     *
+     * @param uuid    The player's uuid.
+     * @param visible If the player is visible.
+     */
+    public void setVisible(@NotNull UUID uuid, boolean visible) {
+        this.membershipMap.computeIfPresent(uuid, (key, membership) -> {
+            if (membership.visible() == visible) return membership;
+
+            this.getCounter(membership.serverName()).visible.addAndGet(visible ? 1 : -1);
+            return new Membership(membership.serverName(), visible);
+        });
+    }
+
+    /**
+     * Used to recount every server from the players
+     * currently connected to the proxy.
+     */
+    public void recount() {
+        this.membershipMap.clear();
+        this.counterMap.values().forEach(counter -> {
+            counter.total.set(0);
+            counter.visible.set(0);
+        });
+
+        for (Player player : MineManiaMenus.getInstance().getProxyServer().getAllPlayers()) {
+            player.getCurrentServer().ifPresent(connection -> this.add(player, connection.getServer()));
+        }
+
+        this.refreshDisplayed();
+    }
+
+    /**
+     * Used to copy the live visible counts into
+     * the counts displayed by menus.
+     */
+    public void refreshDisplayed() {
+        this.counterMap.values().forEach(counter -> counter.displayed = counter.visible.get());
+    }
+
+    /**
+     * Used to start refreshing the displayed counts at an interval.
+     *
+     * @param interval The time between refreshes.
+     * @return This instance.
+     */
+    public @NotNull PlayerCountService start(@NotNull Duration interval) {
+        this.stop();
+        this.task = MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), this::refreshDisplayed)
+                .repeat(interval)
+                .schedule();
+        return this;
+    }
+
+    /**
+     * Used to stop refreshing the displayed counts.
+     *
+     * @return This instance.
+     */
+    public @NotNull PlayerCountService stop() {
+        if (this.task == null) return this;
+        this.task.cancel();
+        this.task = null;
+        return this;
+    }
+
+    @Subscribe(order = PostOrder.EARLY)
+    public void onServerConnected(ServerConnectedEvent event) {
+        this.remove(event.getPlayer().getUniqueId());
+        this.add(event.getPlayer(), event.getServer());
+    }
+
+    @Subscribe(order = PostOrder.EARLY)
+    public void onDisconnect(DisconnectEvent event) {
+        this.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void add(@NotNull Player player, @NotNull RegisteredServer server) {
+
+        // Players that are able to vanish are counted as
+        // visible once the vanish index has checked them.
+        boolean visible = !player.hasPermission(VanishIndex.VANISHABLE_PERMISSION);
+        String serverName = server.getServerInfo().getName();
+
+        this.membershipMap.put(player.getUniqueId(), new Membership(serverName, visible));
+
+        Counter counter = this.getCounter(serverName);
+        counter.total.incrementAndGet();
+        if (visible) counter.visible.incrementAndGet();
+    }
+
+    private void remove(@NotNull UUID uuid) {
+        Membership membership = this.membershipMap.remove(uuid);
+        if (membership == null) return;
+
+        Counter counter = this.getCounter(membership.serverName());
+        counter.total.decrementAndGet();
+        if (membership.visible()) counter.visible.decrementAndGet();
+    }
+
+    private @NotNull Counter getCounter(@NotNull String serverName) {
+
+        // Server names are not case-sensitive on the proxy.
+        return this.counterMap.computeIfAbsent(serverName.toLowerCase(Locale.ROOT), name -> new Counter());
+    }
+}
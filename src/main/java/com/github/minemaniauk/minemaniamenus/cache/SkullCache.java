@@ -0,0 +1,197 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.util.GameProfile;
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a bounded cache of player head nbt.
+ * <p>
+ * When the player is online, the texture from their game profile is
+ * included, so the client can show the head without looking it up.
+ * Otherwise, the head only contains the player's name, and is rebuilt
+ * with its texture when the player is next seen online.
+ * When full, the least recently used head is removed.
+ */
+public class SkullCache {
+
+    private final @NotNull Map<UUID, Entry> entryMap;
+
+    private final @NotNull AtomicLong hits = new AtomicLong();
+    private final @NotNull AtomicLong misses = new AtomicLong();
+
+    /**
+     * Represents a cached head.
+     *
+     * @param name     The player's name.
+     * @param tag      The head's nbt.
+     * @param textured If the nbt contains the player's texture.
+     */
+    private record Entry(@NotNull String name, @NotNull CompoundTag tag, boolean textured) {
+    }
+
+    /**
+     * Used to create a skull cache.
+     *
+     * @param maxSize The maximum amount of heads to hold.
+     */
+    public SkullCache(int maxSize) {
+        this.entryMap = new LinkedHashMap<>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Used to get the nbt for a player's head.
+     * This returns a copy, as items may add their own tags to it.
+     *
+     * @param uuid The player's uuid.
+     * @param name The player's name.
+     * @return The head's nbt.
+     */
+    public @NotNull CompoundTag getTag(@NotNull UUID uuid, @NotNull String name) {
+        Entry entry;
+        synchronized (this.entryMap) {
+            entry = this.entryMap.get(uuid);
+        }
+
+        if (entry != null && entry.name().equals(name) && entry.textured()) {
+            this.hits.incrementAndGet();
+            return entry.tag().clone();
+        }
+
+        Optional<Player> player = MineManiaMenus.getInstance().getProxyServer().getPlayer(uuid);
+
+        // Use the cached head if there is still no texture to add.
+        if (entry != null && entry.name().equals(name) && player.isEmpty()) {
+            this.hits.incrementAndGet();
+            return entry.tag().clone();
+        }
+
+        this.misses.incrementAndGet();
+        Entry created = player
+                .map(value -> SkullCache.createEntry(uuid, name, value.getGameProfile()))
+                .orElseGet(() -> SkullCache.createEntry(uuid, name, null));
+
+        synchronized (this.entryMap) {
+            this.entryMap.put(uuid, created);
+        }
+
+        return created.tag().clone();
+    }
+
+    /**
+     * Used to get the nbt for an online player's head.
+     * This returns a copy, as items may add their own tags to it.
+     *
+     * @param player The instance of the player.
+     * @return The head's nbt.
+     */
+    public @NotNull CompoundTag getTag(@NotNull Player player) {
+        return this.getTag(player.getUniqueId(), player.getUsername());
+    }
+
+    /**
+     * Used to remove every head from the cache.
+     *
+     * @return This instance.
+     */
+    public @NotNull SkullCache clear() {
+        synchronized (this.entryMap) {
+            this.entryMap.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the amount of heads served by the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Used to get the amount of heads that had to be built.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    private static @NotNull Entry createEntry(@NotNull UUID uuid, @NotNull String name, @Nullable GameProfile profile) {
+        CompoundTag tag = new CompoundTag();
+
+        GameProfile.Property textures = profile == null ? null : profile.getProperties().stream()
+                .filter(property -> property.getName().equals("textures"))
+                .findFirst()
+                .orElse(null);
+
+        // Without a texture the client must look up the head by name.
+        if (textures == null) {
+            tag.putString("SkullOwner", name);
+            return new Entry(name, tag, false);
+        }
+
+        CompoundTag texture = new CompoundTag();
+        texture.putString("Value", textures.getValue());
+        if (textures.getSignature() != null && !textures.getSignature().isEmpty()) {
+            texture.putString("Signature", textures.getSignature());
+        }
+
+        ListTag<CompoundTag> textureList = new ListTag<>(CompoundTag.class);
+        textureList.add(texture);
+
+        CompoundTag properties = new CompoundTag();
+        properties.put("textures", textureList);
+
+        CompoundTag owner = new CompoundTag();
+        owner.putIntArray("Id", SkullCache.toIntArray(uuid));
+        owner.putString("Name", name);
+        owner.put("Properties", properties);
+
+        tag.put("SkullOwner", owner);
+        return new Entry(name, tag, true);
+    }
+
+    private static int @NotNull [] toIntArray(@NotNull UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        return new int[]{(int) (most >> 32), (int) most, (int) (least >> 32), (int) least};
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.api.database.record.UserRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a bounded cache of user records.
+ * Records can be looked up by their minecraft uuid or
+ * lower-cased minecraft name and expire after the time to live.
+ * When the cache is full the least recently used record is removed.
+ */
+public class UserRecordCache {
+
+    private final long timeToLiveMillis;
+
+    private final @NotNull Map<UUID, Entry> uuidMap;
+    private final @NotNull Map<String, UUID> nameMap = new HashMap<>();
+
+    private final @NotNull AtomicLong hits = new AtomicLong();
+    private final @NotNull AtomicLong misses = new AtomicLong();
+
+    /**
+     * Represents a cached record and when it was cached.
+     *
+     * @param record        The instance of the record.
+     * @param createdMillis The time the record was cached.
+     */
+    private record Entry(@NotNull UserRecord record, long createdMillis) {
+    }
+
+    /**
+     * Used to create a user record cache.
+     *
+     * @param maxSize    The maximum amount of records to hold.
+     * @param timeToLive How long a record is valid for.
+     */
+    public UserRecordCache(int maxSize, @NotNull Duration timeToLive) {
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.uuidMap = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (this.size() <= maxSize) return false;
+                UserRecordCache.this.removeName(eldest.getValue().record(), eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Used to get a cached record from the player's uuid.
+     *
+     * @param uuid The player's uuid.
+     * @return The cached record or null if it is not cached.
+     */
+    public @Nullable UserRecord get(@NotNull UUID uuid) {
+        UserRecord record = this.peek(uuid);
+
+        if (record == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return record;
+    }
+
+    /**
+     * Used to get a cached record from the player's name.
+     * This is not case-sensitive.
+     *
+     * @param name The player's name.
+     * @return The cached record or null if it is not cached.
+     */
+    public @Nullable UserRecord get(@NotNull String name) {
+        final String key = name.toLowerCase(Locale.ROOT);
+        UserRecord record;
+
+        synchronized (this.uuidMap) {
+            UUID uuid = this.nameMap.get(key);
+            record = uuid == null ? null : this.peek(uuid);
+
+            // Check the player has not been renamed since.
+            if (record != null && !record.getMinecraftName().toLowerCase(Locale.ROOT).equals(key)) {
+                this.nameMap.remove(key, uuid);
+                record = null;
+            }
+        }
+
+        if (record == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return record;
+    }
+
+    /**
+     * Used to get a cached record from the player's uuid
+     * without counting it as a hit or miss.
+     *
+     * @param uuid The player's uuid.
+     * @return The cached record or null if it is not cached.
+     */
+    public @Nullable UserRecord peek(@NotNull UUID uuid) {
+        synchronized (this.uuidMap) {
+            Entry entry = this.uuidMap.get(uuid);
+            if (entry == null) return null;
+
+            if (this.isExpired(entry)) {
+                this.invalidate(uuid);
+                return null;
+            }
+
+            return entry.record();
+        }
+    }
+
+    /**
+     * Used to add a record to the cache.
+     * If the cache is full the least recently used record is removed.
+     *
+     * @param record The record to cache.
+     * @return This instance.
+     */
+    public @NotNull UserRecordCache put(@NotNull UserRecord record) {
+        if (record.mc_uuid == null || record.mc_name == null) return this;
+
+        UUID uuid = record.getMinecraftUuid();
+
+        synchronized (this.uuidMap) {
+            Entry previous = this.uuidMap.put(uuid, new Entry(record, System.currentTimeMillis()));
+
+            // Remove the old name if the player was renamed.
+            if (previous != null && !previous.record().getMinecraftName().equalsIgnoreCase(record.getMinecraftName())) {
+                this.removeName(previous.record(), uuid);
+            }
+
+            this.nameMap.put(record.getMinecraftName().toLowerCase(Locale.ROOT), uuid);
+        }
+        return this;
+    }
+
+    /**
+     * Used to remove a record from the cache.
+     * This should be called when the record is written to the database.
+     *
+     * @param uuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull UserRecordCache invalidate(@NotNull UUID uuid) {
+        synchronized (this.uuidMap) {
+            Entry entry = this.uuidMap.remove(uuid);
+            if (entry == null) return this;
+
+            this.removeName(entry.record(), uuid);
+        }
+        return this;
+    }
+
+    /**
+     * Used to remove all records from the cache.
+     *
+     * @return This instance.
+     */
+    public @NotNull UserRecordCache clear() {
+        synchronized (this.uuidMap) {
+            this.uuidMap.clear();
+            this.nameMap.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the amount of records in the cache.
+     *
+     * @return The amount of cached records.
+     */
+    public int getSize() {
+        synchronized (this.uuidMap) {
+            return this.uuidMap.size();
+        }
+    }
+
+    /**
+     * Used to get the amount of lookups served by the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Used to get the amount of lookups that had
+     * to go to the database.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Used to get the percentage of lookups
+     * served by the cache.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long total = this.getHits() + this.getMisses();
+        if (total == 0) return 0;
+        return (double) this.getHits() / total;
+    }
+
+    private boolean isExpired(@NotNull Entry entry) {
+        return System.currentTimeMillis() - entry.createdMillis() > this.timeToLiveMillis;
+    }
+
+    private void removeName(@NotNull UserRecord record, @NotNull UUID uuid) {
+        this.nameMap.remove(record.getMinecraftName().toLowerCase(Locale.ROOT), uuid);
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.cache;
+
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.permission.PermissionsSetupEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents an index of which players are vanished on each server.
+ * A player is vanished when they are able to vanish and a player on
+ * the same server, that is unable to vanish, cannot see them on their
+ * tab list.
+ * <p>
+ * The index is updated when players connect, switch server and
+ * disconnect. Vanish plugins change tab lists without firing an event
+ * on the proxy, so every server is also re-indexed at an interval,
+ * and the index is checked against a full scan every few intervals.
+ */
+public class VanishIndex {
+
+    public static final @NotNull String VANISHABLE_PERMISSION = "leaf.vanishable";
+    private static final int CHECK_EVERY = 12;
+
+    private final @NotNull Map<String, ServerState> serverMap = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Boolean> vanishedMap = new ConcurrentHashMap<>();
+    private @Nullable ScheduledTask task;
+    private int runs;
+
+    /**
+     * Represents the indexed state of a server.
+     *
+     * @param visible The amount of players that are not vanished.
+     */
+    private record ServerState(int visible) {
+    }
+
+    /**
+     * Used to check if a player is vanished.
+     * If the player has not been indexed yet, their
+     * server will be indexed first.
+     *
+     * @param player The instance of the player.
+     * @return True if they are vanished.
+     */
+    public boolean isVanished(@NotNull Player player) {
+        Boolean vanished = this.vanishedMap.get(player.getUniqueId());
+        if (vanished != null) return vanished;
+
+        Optional<ServerConnection> connection = player.getCurrentServer();
+
+        // If they are not connected to a server they are vanished,
+        // unless they are unable to vanish.
+        if (connection.isEmpty()) return player.hasPermission(VanishIndex.VANISHABLE_PERMISSION);
+
+        this.update(connection.get().getServer());
+        return this.vanishedMap.getOrDefault(player.getUniqueId(), false);
+    }
+
+    /**
+     * Used to get the number of players on a server
+     * that are not vanished.
+     *
+     * @param server The instance of the server.
+     * @return The number of visible players.
+     */
+    public int getVisibleAmount(@NotNull RegisteredServer server) {
+        ServerState state = this.serverMap.get(server.getServerInfo().getName());
+        if (state != null) return state.visible();
+
+        return this.update(server).visible();
+    }
+
+    /**
+     * Used to re-index a server.
+     * This is linear in the amount of players on the server.
+     *
+     * @param server The instance of the server.
+     */
+    public void updateServer(@NotNull RegisteredServer server) {
+        this.update(server);
+    }
+
+    /**
+     * Used to re-index every server.
+     */
+    public void updateAll() {
+        for (RegisteredServer server : MineManiaMenus.getInstance().getProxyServer().getAllServers()) {
+            this.update(server);
+        }
+    }
+
+    /**
+     * Used to start re-indexing every server at an interval.
+     *
+     * @param interval The time between re-indexing.
+     * @return This instance.
+     */
+    public @NotNull VanishIndex start(@NotNull Duration interval) {
+        this.stop();
+        this.task = MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), this::run)
+                .delay(interval)
+                .repeat(interval)
+                .schedule();
+        return this;
+    }
+
+    /**
+     * Used to stop re-indexing at an interval.
+     *
+     * @return This instance.
+     */
+    public @NotNull VanishIndex stop() {
+        if (this.task == null) return this;
+        this.task.cancel();
+        this.task = null;
+        return this;
+    }
+
+    /**
+     * Used to check the index against the full scan
+     * that is used to decide if a player is vanished.
+     * Any players that do not match will be logged
+     * and the index will be corrected.
+     *
+     * @return The number of players that did not match.
+     */
+    public int check() {
+        int mismatches = 0;
+
+        for (RegisteredServer server : MineManiaMenus.getInstance().getProxyServer().getAllServers()) {
+            boolean serverMismatched = false;
+
+            for (Player player : server.getPlayersConnected()) {
+                if (!player.isActive()) continue;
+
+                boolean expected = this.scanIsVanished(player, server);
+                Boolean indexed = this.vanishedMap.get(player.getUniqueId());
+                if (indexed != null && indexed == expected) continue;
+
+                mismatches++;
+                serverMismatched = true;
+                MessageManager.warn("[VanishIndex] Player " + player.getUsername()
+                        + " on " + server.getServerInfo().getName()
+                        + " is indexed as " + (indexed == null ? "missing" : indexed ? "vanished" : "visible")
+                        + " but is " + (expected ? "vanished" : "visible") + ".");
+            }
+
+            if (serverMismatched) this.update(server);
+        }
+
+        if (mismatches > 0) {
+            MessageManager.log("&7[VanishIndex] Consistency check found &f" + mismatches + " &7mismatches.");
+        }
+        return mismatches;
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+
+        // The player's tab list is sent by the backend after
+        // they have connected, so the servers are indexed shortly after.
+        this.scheduleUpdate(event.getServer());
+        event.getPreviousServer().ifPresent(this::scheduleUpdate);
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        this.vanishedMap.remove(event.getPlayer().getUniqueId());
+        event.getPlayer().getCurrentServer().ifPresent(connection -> this.scheduleUpdate(connection.getServer()));
+    }
+
+    @Subscribe
+    public void onPermissionsSetup(PermissionsSetupEvent event) {
+        if (!(event.getSubject() instanceof Player player)) return;
+
+        // Permissions have changed, so the player must be re-indexed.
+        this.vanishedMap.remove(player.getUniqueId());
+    }
+
+    private void run() {
+        this.updateAll();
+
+        // The full scan is slower, so it is
+        // only run every few intervals.
+        this.runs++;
+        if (this.runs % VanishIndex.CHECK_EVERY == 0) this.check();
+    }
+
+    private void scheduleUpdate(@NotNull RegisteredServer server) {
+        MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), () -> this.update(server))
+                .delay(Duration.ofSeconds(1))
+                .schedule();
+    }
+
+    private @NotNull ServerState update(@NotNull RegisteredServer server) {
+        Collection<Player> players = server.getPlayersConnected();
+
+        // Find a player that is unable to vanish.
+        Player viewer = null;
+        for (Player player : players) {
+            if (!player.isActive() || player.hasPermission(VanishIndex.VANISHABLE_PERMISSION)) continue;
+            viewer = player;
+            break;
+        }
+
+        int visible = 0;
+
+        for (Player player : players) {
+
+            // Skip players that have disconnected, so they
+            // are not indexed again after they were removed.
+            if (!player.isActive()) continue;
+
+            boolean isVanished = VanishIndex.isVanished(player, viewer);
+            this.vanishedMap.put(player.getUniqueId(), isVanished);
+
+            // Check if they disconnected while being indexed.
+            if (!player.isActive()) {
+                this.vanishedMap.remove(player.getUniqueId());
+                continue;
+            }
+
+            MineManiaMenus.getInstance().getPlayerCountService().setVisible(player.getUniqueId(), !isVanished);
+            if (!isVanished) visible++;
+        }
+
+        ServerState state = new ServerState(visible);
+        this.serverMap.put(server.getServerInfo().getName(), state);
+        return state;
+    }
+
+    /**
+     * Used to check if a player is vanished using
+     * the full scan of the server.
+     *
+     * @param player The instance of the player.
+     * @param server The server the player is connected to.
+     * @return True if they are vanished.
+     */
+    private boolean scanIsVanished(@NotNull Player player, @NotNull RegisteredServer server) {
+        return VanishIndex.isVanished(player, MineManiaMenus.getInstance().getNotVanishablePlayer(server));
+    }
+
+    private static boolean isVanished(@NotNull Player player, @Nullable Player viewer) {
+
+        // If they are unable to vanish they are not vanished.
+        if (!player.hasPermission(VanishIndex.VANISHABLE_PERMISSION)) return false;
+
+        // If there are no players online that cannot vanish,
+        // we assume they are vanished.
+        if (viewer == null) return true;
+
+        // Check if this player can be seen on the tab list by
+        // players that cannot vanish.
+        return !viewer.getTabList().containsEntry(player.getUniqueId());
+    }
+}
@@ -274,7 +274,7 @@ public record Command(String identifier,
         CommandSource source = invocation.source();
 
         if (source instanceof Player) {
-            User user = new User((Player) source);
+            User user = MineManiaMenus.getInstance().getUserSessionRegistry().getUser((Player) source);
 
             try {
                 // Run the command as a player.
@@ -332,14 +332,14 @@ public record Command(String identifier,
         if (!(source instanceof Player)) return CompletableFuture.completedFuture(List.of());
 
         // Get the user
-        User user = new User((Player) source);
+        User user = MineManiaMenus.getInstance().getUserSessionRegistry().getUser((Player) source);
 
         // Get the argument index. Example: [0, 1, 2...]
         int index = invocation.arguments().length - 1;
         if (index == -1) index = 0;
 
         // Get this commands suggestions.
-        CommandSuggestions suggestions = this.getSuggestions(this.getSection(), new User((Player) source));
+        CommandSuggestions suggestions = this.getSuggestions(this.getSection(), user);
         if (suggestions == null) suggestions = new CommandSuggestions();
 
         // Add sub command types.
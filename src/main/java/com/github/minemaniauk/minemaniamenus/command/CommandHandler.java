@@ -184,6 +184,6 @@ public class CommandHandler {
         Command command = this.getCommand(name);
 
         // Execute the command as a player.
-        command.onPlayerRun(arguments, new User(player));
+        command.onPlayerRun(arguments, MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player));
     }
 }
@@ -20,6 +20,9 @@
 
 package com.github.minemaniauk.minemaniamenus.configuration;
 
+import com.github.minemaniauk.minemaniamenus.CompiledMessage;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+
 import java.io.File;
 
 /**
@@ -51,6 +54,10 @@ public class ConfigurationManager {
         ConfigurationManager.getCommands().reload();
 
         ConfigMessages.initialise(folder);
+
+        // Messages may have changed, so parse them again.
+        MessageManager.getComponentCache().clear();
+        CompiledMessage.clearCache();
     }
 
     public static CommandConfigurationHandler getCommands() {
@@ -0,0 +1,205 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.database;
+
+import com.github.minemaniauk.api.database.collection.UserCollection;
+import com.github.minemaniauk.api.database.record.UserRecord;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.github.minemaniauk.minemaniamenus.cache.UserRecordCache;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a queue of user records that need to be
+ * inserted or renamed in the database.
+ * Players are coalesced by uuid, so a player that switches
+ * servers many times before a flush results in a single upsert.
+ * The queue is flushed in batches on the proxy's scheduler,
+ * so the event thread never waits on the database.
+ * <p>
+ * A batch only groups the writes in time. Each player in
+ * a batch is still read and written with its own query.
+ */
+public class UserUpsertQueue {
+
+    private final @NotNull UserRecordCache cache;
+    private final int batchSize;
+
+    private final @NotNull Map<UUID, String> pendingMap = new ConcurrentHashMap<>();
+    private final @NotNull ReentrantLock flushLock = new ReentrantLock();
+    private @Nullable ScheduledTask task;
+
+    /**
+     * Used to create a user upsert queue.
+     *
+     * @param cache     The user record cache to keep up to date.
+     * @param batchSize The maximum amount of records to write per flush.
+     */
+    public UserUpsertQueue(@NotNull UserRecordCache cache, int batchSize) {
+        this.cache = cache;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Used to queue a player to be upserted.
+     * If the cached record already matches the player,
+     * nothing will be queued.
+     *
+     * @param uuid The player's uuid.
+     * @param name The player's current name.
+     * @return This instance.
+     */
+    public @NotNull UserUpsertQueue queue(@NotNull UUID uuid, @NotNull String name) {
+        UserRecord cached = this.cache.peek(uuid);
+        if (cached != null && cached.getMinecraftName().equals(name)) return this;
+
+        this.pendingMap.put(uuid, name);
+        return this;
+    }
+
+    /**
+     * Used to start flushing the queue at an interval.
+     *
+     * @param interval The time between flushes.
+     * @return This instance.
+     */
+    public @NotNull UserUpsertQueue start(@NotNull Duration interval) {
+        this.stop();
+        this.task = MineManiaMenus.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaMenus.getInstance(), this::flush)
+                .delay(interval)
+                .repeat(interval)
+                .schedule();
+        return this;
+    }
+
+    /**
+     * Used to stop flushing the queue.
+     * Any pending players will remain in the queue.
+     *
+     * @return This instance.
+     */
+    public @NotNull UserUpsertQueue stop() {
+        if (this.task == null) return this;
+        this.task.cancel();
+        this.task = null;
+        return this;
+    }
+
+    /**
+     * Used to write the next batch of pending players
+     * to the database.
+     * If a flush is already running this will do nothing.
+     */
+    public void flush() {
+        if (!this.flushLock.tryLock()) return;
+
+        try {
+            this.writeBatch();
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Used to write every pending player to the database.
+     * If a flush is already running, this will wait for it
+     * to finish and then write the rest of the queue.
+     * This will block until the queue is empty.
+     */
+    public void flushAll() {
+        this.flushLock.lock();
+
+        try {
+            while (!this.pendingMap.isEmpty()) {
+                this.writeBatch();
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Used to get the amount of players waiting to be written.
+     *
+     * @return The amount of pending players.
+     */
+    public int getPendingAmount() {
+        return this.pendingMap.size();
+    }
+
+    private void writeBatch() {
+        int amount = 0;
+        Iterator<UUID> iterator = this.pendingMap.keySet().iterator();
+        while (iterator.hasNext() && amount < this.batchSize) {
+            UUID uuid = iterator.next();
+            String name = this.pendingMap.remove(uuid);
+            if (name == null) continue;
+
+            amount++;
+            this.upsert(uuid, name);
+        }
+    }
+
+    private void upsert(@NotNull UUID uuid, @NotNull String name) {
+        try {
+            UserCollection collection = MineManiaMenus.getInstance().getAPI().getDatabase()
+                    .getTable(UserCollection.class);
+
+            UserRecord record = collection.getUserRecord(uuid).orElse(null);
+
+            // Check if this is the player's first login.
+            if (record == null) {
+                record = new UserRecord();
+                record.mc_name = name;
+                record.mc_uuid = uuid.toString();
+
+                this.cache.invalidate(uuid);
+                collection.insertRecord(record);
+                this.cache.put(record);
+                return;
+            }
+
+            // Check if the player has been renamed.
+            if (!name.equals(record.getMinecraftName())) {
+                record.mc_name = name;
+
+                this.cache.invalidate(uuid);
+                collection.insertRecord(record);
+            }
+
+            this.cache.put(record);
+
+        } catch (Exception exception) {
+            MessageManager.warn("Unable to upsert user record for " + name + " : " + uuid);
+            exception.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.dependencys;
+
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+
+public class LuckPermsAdapter {
+
+    /**
+     * Used to invalidate a player's remembered permissions
+     * whenever luck perms recalculates their permissions.
+     */
+    public static void registerListeners() {
+        LuckPermsProvider.get().getEventBus().subscribe(
+                MineManiaMenus.getInstance(),
+                UserDataRecalculateEvent.class,
+                event -> MineManiaMenus.getInstance().getUserSessionRegistry()
+                        .invalidatePermissions(event.getUser().getUniqueId())
+        );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.gameroom;
+
+import com.github.kerbity.kerb.packet.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Represents a kerb event called when a game room is changed.
+ * <p>
+ * It only contains what is needed to tell if a viewer should
+ * refresh. The viewer will then get the room from the database.
+ */
+public class GameRoomChangeEvent extends Event {
+
+    /**
+     * Represents the kinds of change to a game room.
+     */
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        REMOVED,
+        STARTED
+    }
+
+    private final @NotNull String origin;
+    private final @NotNull String gameRoomUuid;
+    private final long version;
+    private final @NotNull Kind kind;
+
+    /**
+     * Used to create a game room change event.
+     *
+     * @param origin       The identifier of the proxy that changed the room.
+     * @param gameRoomUuid The game room's uuid.
+     * @param version      Increased by the origin every time it changes a room.
+     * @param kind         The kind of change.
+     */
+    public GameRoomChangeEvent(@NotNull String origin, @NotNull UUID gameRoomUuid, long version, @NotNull Kind kind) {
+        this.origin = origin;
+        this.gameRoomUuid = gameRoomUuid.toString();
+        this.version = version;
+        this.kind = kind;
+    }
+
+    /**
+     * Used to get the identifier of the proxy that changed the room.
+     *
+     * @return The origin's identifier.
+     */
+    public @NotNull String getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Used to get the uuid of the game room that changed.
+     *
+     * @return The game room's uuid.
+     */
+    public @NotNull UUID getGameRoomUuid() {
+        return UUID.fromString(this.gameRoomUuid);
+    }
+
+    /**
+     * Used to get the version of the change.
+     * Versions from the same origin always increase.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Used to get the kind of change.
+     *
+     * @return The kind of change.
+     */
+    public @NotNull Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Used to check if the change could affect the public room list.
+     * A private room that is updated could have been public before,
+     * so only changes that keep a room out of the list are excluded.
+     *
+     * @return True if the public room list should be polled.
+     */
+    public boolean affectsPublicList() {
+        return this.kind != Kind.CREATED;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.gameroom;
+
+import com.github.kerbity.kerb.client.listener.EventListener;
+import com.github.kerbity.kerb.packet.event.Event;
+import com.github.kerbity.kerb.packet.event.Priority;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Represents the notifier used to tell menus when a game room changes.
+ * <p>
+ * Changes made on this proxy are given to local listeners straight away,
+ * and then published over kerb, one at a time in the order they were
+ * made, so other proxies can refresh their menus. Changes from other
+ * proxies are given to local listeners once, ignoring a change to a
+ * room that is older than the last change received for that room.
+ */
+public class GameRoomChangeNotifier {
+
+    private final @NotNull String origin = UUID.randomUUID().toString();
+    private final @NotNull AtomicLong version = new AtomicLong();
+    private final @NotNull Map<String, Long> lastVersionMap = new ConcurrentHashMap<>();
+    private final @NotNull ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MineManiaMenus-GameRoomChange");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final @NotNull Map<UUID, Listener> listenerMap = new ConcurrentHashMap<>();
+    private final @NotNull AtomicLong published = new AtomicLong();
+    private final @NotNull AtomicLong received = new AtomicLong();
+
+    /**
+     * Represents a listener of game room changes.
+     *
+     * @param isClosed Returns true when the listener's owner has closed.
+     * @param listener Called when a game room changes.
+     */
+    private record Listener(@NotNull BooleanSupplier isClosed, @NotNull Consumer<GameRoomChangeEvent> listener) {
+    }
+
+    /**
+     * Used to add a listener.
+     * It is removed when it is closed or unsubscribed.
+     *
+     * @param identifier The listener's identifier.
+     * @param isClosed   Returns true when the listener's owner has closed.
+     * @param listener   Called when a game room changes.
+     * @return This instance.
+     */
+    public @NotNull GameRoomChangeNotifier subscribe(@NotNull UUID identifier,
+                                                     @NotNull BooleanSupplier isClosed,
+                                                     @NotNull Consumer<GameRoomChangeEvent> listener) {
+
+        this.listenerMap.put(identifier, new Listener(isClosed, listener));
+        return this;
+    }
+
+    /**
+     * Used to remove a listener.
+     *
+     * @param identifier The listener's identifier.
+     * @return This instance.
+     */
+    public @NotNull GameRoomChangeNotifier unsubscribe(@NotNull UUID identifier) {
+        this.listenerMap.remove(identifier);
+        return this;
+    }
+
+    /**
+     * Used to tell local listeners and other proxies
+     * that a game room has changed.
+     * This should be called after the change is saved.
+     *
+     * @param gameRoomUuid The game room's uuid.
+     * @param kind         The kind of change.
+     * @return The event that was published.
+     */
+    public @NotNull GameRoomChangeEvent publish(@NotNull UUID gameRoomUuid, @NotNull GameRoomChangeEvent.Kind kind) {
+        final GameRoomChangeEvent event = new GameRoomChangeEvent(
+                this.origin, gameRoomUuid, this.version.incrementAndGet(), kind
+        );
+
+        this.notifyListeners(event);
+        this.published.incrementAndGet();
+
+        // Publish without waiting for the other proxies,
+        // on one thread so changes are sent in order.
+        this.sender.execute(() -> {
+            try {
+                MineManiaMenus.getInstance().getAPI().getKerbClient().callEvent(event);
+            } catch (Exception exception) {
+                MessageManager.warn("Unable to publish a game room change.");
+                exception.printStackTrace();
+            }
+        });
+
+        return event;
+    }
+
+    /**
+     * Used to stop publishing changes.
+     * Changes that are waiting to be sent are dropped.
+     *
+     * @return This instance.
+     */
+    public @NotNull GameRoomChangeNotifier stop() {
+        this.sender.shutdownNow();
+        return this;
+    }
+
+    /**
+     * Used to register the kerb listener for changes made on other proxies.
+     *
+     * @return This instance.
+     */
+    public @NotNull GameRoomChangeNotifier registerListener() {
+        MineManiaMenus.getInstance().getAPI().getKerbClient().registerListener(Priority.LOW, new EventListener<GameRoomChangeEvent>() {
+            @Override
+            public @Nullable Event onEvent(GameRoomChangeEvent event) {
+                GameRoomChangeNotifier.this.onReceive(event);
+                return event;
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Used to get the amount of changes published by this proxy.
+     *
+     * @return The amount of published changes.
+     */
+    public long getPublishedAmount() {
+        return this.published.get();
+    }
+
+    /**
+     * Used to get the amount of changes received from other proxies.
+     *
+     * @return The amount of received changes.
+     */
+    public long getReceivedAmount() {
+        return this.received.get();
+    }
+
+    private void onReceive(@NotNull GameRoomChangeEvent event) {
+
+        // Changes from this proxy were already given to local listeners.
+        if (event.getOrigin().equals(this.origin)) return;
+
+        // Ignore duplicate or older changes to the same room.
+        // Changes to other rooms do not affect each other.
+        final String key = event.getOrigin() + ":" + event.getGameRoomUuid();
+        synchronized (this.lastVersionMap) {
+            final Long last = this.lastVersionMap.get(key);
+            if (last != null && event.getVersion() <= last) return;
+
+            // A removed room will not change again,
+            // so stop remembering its version.
+            if (event.getKind() == GameRoomChangeEvent.Kind.REMOVED) {
+                this.lastVersionMap.remove(key);
+            } else {
+                this.lastVersionMap.put(key, event.getVersion());
+            }
+        }
+
+        this.received.incrementAndGet();
+        this.notifyListeners(event);
+    }
+
+    private void notifyListeners(@NotNull GameRoomChangeEvent event) {
+        for (Map.Entry<UUID, Listener> entry : this.listenerMap.entrySet()) {
+            if (entry.getValue().isClosed().getAsBoolean()) {
+                this.listenerMap.remove(entry.getKey());
+                continue;
+            }
+
+            try {
+                entry.getValue().listener().accept(event);
+            } catch (Exception exception) {
+                MessageManager.warn("Unable to notify a game room change listener.");
+                exception.printStackTrace();
+            }
+        }
+    }
+}
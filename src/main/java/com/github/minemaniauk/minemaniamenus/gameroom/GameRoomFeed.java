@@ -0,0 +1,300 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.gameroom;
+
+import com.github.minemaniauk.api.database.collection.GameRoomCollection;
+import com.github.minemaniauk.api.database.record.GameRoomRecord;
+import com.github.minemaniauk.minemaniamenus.AdaptiveRefresher;
+import com.github.minemaniauk.minemaniamenus.MenuExecutor;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.github.smuddgge.squishydatabase.Query;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Represents a shared feed of public game rooms that are not in an arena.
+ * The feed is polled when a game room change is published, and while
+ * there are viewers, at an interval that grows while the rooms stay
+ * the same. Each viewer is given the same immutable snapshot when the
+ * rooms change, and is not notified when they have not.
+ */
+public class GameRoomFeed {
+
+    private static final @NotNull String TASK_IDENTIFIER = "gameRoomFeed";
+
+    private final @NotNull Map<UUID, Viewer> viewerMap = new ConcurrentHashMap<>();
+    private final @NotNull AdaptiveRefresher refresher;
+    private final @NotNull AtomicLong pollTicket = new AtomicLong();
+    private volatile @NotNull Snapshot snapshot = new Snapshot(0, List.of(), List.of());
+    private long appliedTicket;
+
+    /**
+     * Represents a viewer of the feed.
+     *
+     * @param isClosed Returns true when the viewer has closed.
+     * @param listener Called when the snapshot changes.
+     */
+    private record Viewer(@NotNull BooleanSupplier isClosed, @NotNull Consumer<Snapshot> listener) {
+    }
+
+    /**
+     * Represents the public game rooms at a point in time.
+     *
+     * @param version    Increased every time the rooms change.
+     * @param rooms      The public game rooms not in an arena.
+     * @param signatures The signature of each room, in the same order.
+     */
+    public record Snapshot(long version,
+                           @NotNull List<GameRoomRecord> rooms,
+                           @NotNull List<String> signatures) {
+
+        /**
+         * Used to get the signatures of the first rooms.
+         * If these are the same between snapshots,
+         * the rows shown for them do not need to change.
+         *
+         * @param amount The number of rooms.
+         * @return The signatures of the first rooms.
+         */
+        public @NotNull List<String> getSignatures(int amount) {
+            return this.signatures.subList(0, Math.min(amount, this.signatures.size()));
+        }
+    }
+
+    /**
+     * Used to create a game room feed.
+     *
+     * @param minimum The shortest time between polling the database.
+     * @param maximum The longest time between polling the database,
+     *                when the rooms have not changed for a while.
+     */
+    public GameRoomFeed(@NotNull Duration minimum, @NotNull Duration maximum) {
+        this.refresher = new AdaptiveRefresher(
+                GameRoomFeed.TASK_IDENTIFIER,
+                minimum,
+                maximum,
+                () -> {
+                    this.poll();
+                    return this.snapshot.version();
+                },
+                this::stopIfEmpty
+        );
+    }
+
+    /**
+     * Used to get the latest snapshot.
+     *
+     * @return The latest snapshot.
+     */
+    public @NotNull Snapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Used to subscribe to the feed.
+     * If this is the first viewer the feed will be polled
+     * in the background straight away, and then less often
+     * while the rooms stay the same. The viewer should render
+     * the current snapshot when opened, and the listener will
+     * be called if the poll finds the rooms have changed.
+     *
+     * @param identifier The viewer's identifier.
+     * @param isClosed   Returns true when the viewer has closed.
+     * @param listener   Called when the snapshot changes.
+     * @return This instance.
+     */
+    public @NotNull GameRoomFeed subscribe(@NotNull UUID identifier,
+                                           @NotNull BooleanSupplier isClosed,
+                                           @NotNull Consumer<Snapshot> listener) {
+
+        synchronized (this) {
+            this.viewerMap.put(identifier, new Viewer(isClosed, listener));
+            if (!this.refresher.isStopped()) return this;
+
+            // The snapshot may be out of date while the feed
+            // was stopped, so poll on the scheduler straight away.
+            this.refresher.start(this.snapshot.version());
+            this.refresher.reset();
+        }
+
+        return this;
+    }
+
+    /**
+     * Used to unsubscribe from the feed.
+     * When there are no viewers the feed stops polling.
+     *
+     * @param identifier The viewer's identifier.
+     * @return This instance.
+     */
+    public @NotNull GameRoomFeed unsubscribe(@NotNull UUID identifier) {
+        this.viewerMap.remove(identifier);
+        return this;
+    }
+
+    /**
+     * Used to get the amount of viewers subscribed to the feed.
+     *
+     * @return The amount of viewers.
+     */
+    public int getViewerAmount() {
+        return this.viewerMap.size();
+    }
+
+    /**
+     * Used to poll the feed soon, when a game room has changed.
+     * Requests made before the poll runs are combined into one poll,
+     * and nothing is polled if there are no viewers.
+     * The feed will then poll quickly until the rooms settle.
+     *
+     * @return This instance.
+     */
+    public @NotNull GameRoomFeed requestPoll() {
+        this.refresher.reset();
+        return this;
+    }
+
+    /**
+     * Used to get the current time between polls.
+     *
+     * @return The current interval.
+     */
+    public @NotNull Duration getInterval() {
+        return this.refresher.getInterval();
+    }
+
+    /**
+     * Used to stop polling if there are no viewers.
+     * This is decided under the same lock as {@link #subscribe},
+     * so a viewer can not be added after the feed has decided to
+     * stop but before it has stopped.
+     *
+     * @return True if the feed has stopped polling.
+     */
+    private synchronized boolean stopIfEmpty() {
+        if (!this.viewerMap.isEmpty()) return false;
+
+        this.refresher.stop();
+        return true;
+    }
+
+    /**
+     * Used to query the database for the public rooms.
+     * If they have changed, a new snapshot is created
+     * and given to every viewer.
+     * <p>
+     * The database is queried without holding the feed's lock,
+     * and viewers are rendered on the menu executor, so a slow
+     * query or viewer does not hold up subscribers or other viewers.
+     */
+    public void poll() {
+
+        // Remember the order of polls, so an
+        // older one can not replace a newer one.
+        final long ticket = this.pollTicket.incrementAndGet();
+        final List<GameRoomRecord> rooms = this.query();
+        if (rooms == null) return;
+
+        final List<String> signatures = rooms.stream().map(GameRoomFeed::getSignature).toList();
+        final List<Map.Entry<UUID, Viewer>> viewers;
+
+        synchronized (this) {
+            if (ticket < this.appliedTicket) return;
+            this.appliedTicket = ticket;
+
+            if (signatures.equals(this.snapshot.signatures())) return;
+
+            this.snapshot = new Snapshot(this.snapshot.version() + 1, rooms, signatures);
+            viewers = List.copyOf(this.viewerMap.entrySet());
+        }
+
+        this.notifyViewers(viewers);
+    }
+
+    /**
+     * Used to query the database for the public
+     * rooms that are not in an arena.
+     *
+     * @return The rooms, or null if they could not be queried.
+     */
+    private @Nullable List<GameRoomRecord> query() {
+        try {
+            // Get public rooms not in an arena.
+            return MineManiaMenus.getInstance()
+                    .getAPI().getDatabase()
+                    .getTable(GameRoomCollection.class)
+                    .getRecordList(new Query().match("is_private", false))
+                    .stream().filter(gameRoom -> MineManiaMenus.getInstance().getAPI()
+                            .getGameManager()
+                            .getArena(gameRoom.getUuid())
+                            .isEmpty()
+                    )
+                    .toList();
+
+        } catch (Exception exception) {
+            MessageManager.warn("Unable to poll the public game rooms.");
+            exception.printStackTrace();
+            return null;
+        }
+    }
+
+    private void notifyViewers(@NotNull List<Map.Entry<UUID, Viewer>> viewers) {
+        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+        for (Map.Entry<UUID, Viewer> entry : viewers) {
+            if (entry.getValue().isClosed().getAsBoolean()) {
+                this.viewerMap.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            // Render the latest snapshot when the task runs,
+            // as a newer poll may have finished by then.
+            executor.run(entry.getKey(), "renderGameRooms", () -> {
+                if (entry.getValue().isClosed().getAsBoolean()) return;
+                entry.getValue().listener().accept(this.snapshot);
+            });
+        }
+    }
+
+    /**
+     * Used to get a string that changes when anything
+     * shown for the room changes.
+     *
+     * @param record The instance of the room.
+     * @return The room's signature.
+     */
+    public static @NotNull String getSignature(@NotNull GameRoomRecord record) {
+        return record.getUuid()
+                + ":" + record.getGameType().getName()
+                + ":" + record.isPrivate()
+                + ":" + record.getPlayerUuids();
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.gameroom;
+
+import com.github.minemaniauk.api.database.collection.GameRoomCollection;
+import com.github.minemaniauk.api.database.record.GameRoomRecord;
+import com.github.minemaniauk.minemaniamenus.AdaptiveRefresher;
+import com.github.minemaniauk.minemaniamenus.MenuExecutor;
+import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Represents the registry of players viewing a game room.
+ * <p>
+ * Each room with viewers is fetched from the database once
+ * when it changes, and the result is given to every viewer
+ * of that room. Each room is also polled while it has viewers,
+ * at an interval that grows while the room stays the same.
+ * <p>
+ * Rooms are fetched without holding the room's lock, and viewers
+ * are rendered on the menu executor. The records in a snapshot
+ * are shared by every viewer, so they should never be changed.
+ */
+public class RoomViewerRegistry {
+
+    private static final @NotNull String TASK_IDENTIFIER = "roomViewerRegistry";
+
+    private final @NotNull Duration minimum;
+    private final @NotNull Duration maximum;
+    private final @NotNull Map<UUID, Room> roomMap = new ConcurrentHashMap<>();
+    private final @NotNull AtomicLong fetches = new AtomicLong();
+    private final @NotNull AtomicLong refresherCount = new AtomicLong();
+
+    /**
+     * Represents a viewer of a room.
+     *
+     * @param isClosed Returns true when the viewer has closed.
+     * @param listener Called when the room changes.
+     */
+    private record Viewer(@NotNull BooleanSupplier isClosed, @NotNull Consumer<Snapshot> listener) {
+    }
+
+    /**
+     * Represents a room that has viewers.
+     * The fields are guarded by the room's lock.
+     */
+    private static class Room {
+
+        private final @NotNull UUID uuid;
+        private final @NotNull Map<UUID, Viewer> viewerMap = new ConcurrentHashMap<>();
+        private final @NotNull AtomicLong fetchTicket = new AtomicLong();
+        private volatile @Nullable Snapshot snapshot;
+        private long appliedTicket;
+        private @Nullable AdaptiveRefresher refresher;
+        private boolean removed;
+
+        private Room(@NotNull UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        private long getVersion() {
+            final Snapshot current = this.snapshot;
+            return current == null ? 0 : current.version();
+        }
+    }
+
+    /**
+     * Represents a game room at a point in time.
+     *
+     * @param version   Increased every time the room changes.
+     * @param record    The instance of the room, or null if it no longer exists.
+     * @param signature The room's signature.
+     */
+    public record Snapshot(long version, @Nullable GameRoomRecord record, @NotNull String signature) {
+    }
+
+    /**
+     * Used to create a room viewer registry.
+     *
+     * @param minimum The shortest time between polling each room.
+     * @param maximum The longest time between polling each room,
+     *                when it has not changed for a while.
+     */
+    public RoomViewerRegistry(@NotNull Duration minimum, @NotNull Duration maximum) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Used to start viewing a room.
+     * The listener is given the current snapshot on the menu executor,
+     * and then every time the room changes. If the room has not been
+     * fetched yet, it is fetched in the background first.
+     *
+     * @param roomUuid   The room's uuid.
+     * @param identifier The viewer's identifier.
+     * @param isClosed   Returns true when the viewer has closed.
+     * @param listener   Called when the room changes.
+     * @return This instance.
+     */
+    public @NotNull RoomViewerRegistry subscribe(@NotNull UUID roomUuid,
+                                                 @NotNull UUID identifier,
+                                                 @NotNull BooleanSupplier isClosed,
+                                                 @NotNull Consumer<Snapshot> listener) {
+
+        while (true) {
+            final Room room = this.roomMap.computeIfAbsent(roomUuid, Room::new);
+            final Viewer viewer = new Viewer(isClosed, listener);
+
+            synchronized (room) {
+
+                // The room was removed after it was
+                // got, so get the new instance.
+                if (room.removed) continue;
+
+                room.viewerMap.put(identifier, viewer);
+
+                if (room.refresher == null || room.refresher.isStopped()) {
+                    room.refresher = new AdaptiveRefresher(
+
+                            // Each refresher has its own identifier, so one for a removed
+                            // room can not cancel the task of a new one for the same room.
+                            RoomViewerRegistry.TASK_IDENTIFIER + roomUuid + ":" + this.refresherCount.incrementAndGet(),
+                            this.minimum,
+                            this.maximum,
+                            () -> this.refresh(room),
+                            () -> this.removeIfEmpty(room)
+                    );
+                    room.refresher.start(room.getVersion());
+                }
+
+                // Fetch the room in the background if it
+                // has not been fetched, then render every viewer.
+                if (room.snapshot == null) {
+                    room.refresher.reset();
+                    return this;
+                }
+            }
+
+            this.render(identifier, viewer, room);
+            return this;
+        }
+    }
+
+    /**
+     * Used to stop viewing a room.
+     * When a room has no viewers it stops being polled.
+     *
+     * @param roomUuid   The room's uuid.
+     * @param identifier The viewer's identifier.
+     * @return This instance.
+     */
+    public @NotNull RoomViewerRegistry unsubscribe(@NotNull UUID roomUuid, @NotNull UUID identifier) {
+        final Room room = this.roomMap.get(roomUuid);
+        if (room == null) return this;
+
+        synchronized (room) {
+            room.viewerMap.remove(identifier);
+            if (this.removeIfEmpty(room) && room.refresher != null) room.refresher.stop();
+        }
+        return this;
+    }
+
+    /**
+     * Used to fetch a room again after it has changed.
+     * Changes made before the fetch runs are combined
+     * into one fetch, and nothing is fetched if the
+     * room has no viewers. The room will then be
+     * polled quickly until it settles.
+     *
+     * @param roomUuid The room's uuid.
+     * @return This instance.
+     */
+    public @NotNull RoomViewerRegistry onChange(@NotNull UUID roomUuid) {
+        final Room room = this.roomMap.get(roomUuid);
+        if (room == null) return this;
+
+        synchronized (room) {
+            if (room.refresher != null) room.refresher.reset();
+        }
+        return this;
+    }
+
+    /**
+     * Used to fetch a room now, on the current thread, and render
+     * its viewers if it has changed. This should be called after
+     * the room is changed on this proxy, so the viewers see the
+     * change without waiting for the next poll.
+     *
+     * @param roomUuid The room's uuid.
+     * @return This instance.
+     */
+    public @NotNull RoomViewerRegistry refresh(@NotNull UUID roomUuid) {
+        final Room room = this.roomMap.get(roomUuid);
+        if (room == null) return this;
+
+        this.refresh(room);
+        return this;
+    }
+
+    /**
+     * Used to get the amount of rooms being viewed.
+     *
+     * @return The amount of rooms.
+     */
+    public int getRoomAmount() {
+        return this.roomMap.size();
+    }
+
+    /**
+     * Used to get the amount of viewers of a room.
+     *
+     * @param roomUuid The room's uuid.
+     * @return The amount of viewers.
+     */
+    public int getViewerAmount(@NotNull UUID roomUuid) {
+        final Room room = this.roomMap.get(roomUuid);
+        if (room == null) return 0;
+        return room.viewerMap.size();
+    }
+
+    /**
+     * Used to get the amount of times a room has
+     * been fetched from the database.
+     *
+     * @return The amount of fetches.
+     */
+    public long getFetchAmount() {
+        return this.fetches.get();
+    }
+
+    private long refresh(@NotNull Room room) {
+        if (room.viewerMap.isEmpty()) return room.getVersion();
+
+        // Fetch without holding the lock, remembering the order
+        // of fetches so an older one can not replace a newer one.
+        final long ticket = room.fetchTicket.incrementAndGet();
+        final GameRoomRecord record;
+
+        try {
+            record = MineManiaMenus.getInstance().getAPI().getDatabase()
+                    .getTable(GameRoomCollection.class)
+                    .getGameRoom(room.uuid)
+                    .orElse(null);
+
+        } catch (Exception exception) {
+            MessageManager.warn("Unable to fetch the game room " + room.uuid + ".");
+            exception.printStackTrace();
+            return room.getVersion();
+        }
+
+        this.fetches.incrementAndGet();
+        final String signature = record == null ? "removed" : GameRoomFeed.getSignature(record);
+        final List<Map.Entry<UUID, Viewer>> viewers;
+
+        synchronized (room) {
+            if (ticket < room.appliedTicket) return room.getVersion();
+            room.appliedTicket = ticket;
+
+            // Only render for viewers if the room has changed.
+            final Snapshot previous = room.snapshot;
+            if (previous != null && previous.signature().equals(signature)) return previous.version();
+
+            room.snapshot = new Snapshot(room.getVersion() + 1, record, signature);
+            viewers = List.copyOf(room.viewerMap.entrySet());
+        }
+
+        for (Map.Entry<UUID, Viewer> entry : viewers) {
+            this.render(entry.getKey(), entry.getValue(), room);
+        }
+
+        return room.getVersion();
+    }
+
+    private void render(@NotNull UUID identifier, @NotNull Viewer viewer, @NotNull Room room) {
+        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+        // Render the latest snapshot when the task runs,
+        // as a newer fetch may have finished by then.
+        executor.run(identifier, "renderGameRoom", () -> {
+            final Snapshot snapshot = room.snapshot;
+            if (snapshot == null || viewer.isClosed().getAsBoolean()) return;
+
+            try {
+                viewer.listener().accept(snapshot);
+            } catch (Exception exception) {
+                MessageManager.warn("Unable to update a game room viewer.");
+                exception.printStackTrace();
+            }
+        });
+    }
+
+    private boolean removeIfEmpty(@NotNull Room room) {
+        synchronized (room) {
+            room.viewerMap.entrySet().removeIf(entry -> entry.getValue().isClosed().getAsBoolean());
+            if (!room.viewerMap.isEmpty()) return false;
+
+            room.removed = true;
+            this.roomMap.remove(room.uuid, room);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.gameroom;
+
+import com.github.minemaniauk.minemaniamenus.PublicTaskContainer;
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the coordinator used to warp a game room's players to a server.
+ * <p>
+ * Every player's connection request is sent at the same time.
+ * A failed request is retried after a backoff that doubles each attempt,
+ * as long as the player is still online. The returned report says how many
+ * players arrived, who did not, and how long the warp took.
+ */
+public class WarpCoordinator {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    private final @NotNull AtomicLong warps = new AtomicLong();
+    private final @NotNull AtomicLong players = new AtomicLong();
+    private final @NotNull AtomicLong arrived = new AtomicLong();
+    private final @NotNull AtomicLong totalMillis = new AtomicLong();
+
+    /**
+     * Represents the result of a warp.
+     *
+     * @param total       The amount of players warped.
+     * @param arrived     The amount of players that arrived.
+     * @param failedNames The names of the players that did not arrive.
+     * @param millis      How long until every request finished.
+     */
+    public record Report(int total, int arrived, @NotNull List<String> failedNames, long millis) {
+    }
+
+    /**
+     * Used to create a warp coordinator.
+     *
+     * @param maxAttempts The maximum amount of requests for each player.
+     * @param backoff     How long to wait before the first retry.
+     */
+    public WarpCoordinator(int maxAttempts, @NotNull Duration backoff) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    /**
+     * Used to warp players to a server.
+     *
+     * @param playerList The players to warp.
+     * @param server     The server to warp them to.
+     * @return The future report, completed once every player
+     * has arrived or run out of attempts.
+     */
+    public @NotNull CompletableFuture<Report> warp(@NotNull Collection<Player> playerList, @NotNull RegisteredServer server) {
+        final long startMillis = System.currentTimeMillis();
+
+        List<Player> requestedList = new ArrayList<>(playerList);
+        List<CompletableFuture<Boolean>> futureList = new ArrayList<>();
+        for (Player player : requestedList) {
+            futureList.add(this.connect(player, server, 1));
+        }
+
+        return CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            int arrivedAmount = 0;
+            List<String> failedNames = new ArrayList<>();
+
+            for (int index = 0; index < requestedList.size(); index++) {
+                if (futureList.get(index).join()) {
+                    arrivedAmount++;
+                    continue;
+                }
+                failedNames.add(requestedList.get(index).getUsername());
+            }
+
+            long millis = System.currentTimeMillis() - startMillis;
+            this.warps.incrementAndGet();
+            this.players.addAndGet(requestedList.size());
+            this.arrived.addAndGet(arrivedAmount);
+            this.totalMillis.addAndGet(millis);
+
+            return new Report(requestedList.size(), arrivedAmount, failedNames, millis);
+        });
+    }
+
+    /**
+     * Used to get the fraction of all warped players that arrived.
+     *
+     * @return The success rate from 0 to 1.
+     */
+    public double getSuccessRate() {
+        long amount = this.players.get();
+        if (amount == 0) return 1;
+        return this.arrived.get() / (double) amount;
+    }
+
+    /**
+     * Used to get the average time a warp took.
+     *
+     * @return The average latency in milliseconds.
+     */
+    public double getAverageLatencyMillis() {
+        long amount = this.warps.get();
+        if (amount == 0) return 0;
+        return this.totalMillis.get() / (double) amount;
+    }
+
+    private @NotNull CompletableFuture<Boolean> connect(@NotNull Player player, @NotNull RegisteredServer server, int attempt) {
+        CompletableFuture<ConnectionRequestBuilder.Result> request;
+        try {
+            request = player.createConnectionRequest(server).connect();
+        } catch (Exception exception) {
+            request = CompletableFuture.failedFuture(exception);
+        }
+
+        return request
+                .handle((result, throwable) -> throwable == null
+                        && (result.isSuccessful() || result.getStatus() == ConnectionRequestBuilder.Status.ALREADY_CONNECTED))
+                .thenCompose(success -> {
+                    if (success) return CompletableFuture.completedFuture(true);
+                    if (attempt >= this.maxAttempts || !player.isActive()) return CompletableFuture.completedFuture(false);
+                    return this.retry(player, server, attempt);
+                });
+    }
+
+    private @NotNull CompletableFuture<Boolean> retry(@NotNull Player player, @NotNull RegisteredServer server, int attempt) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        long delay = this.backoffMillis << (attempt - 1);
+
+        PublicTaskContainer.getInstance().runTask(
+                () -> this.connect(player, server, attempt + 1).whenComplete((success, throwable) ->
+                        future.complete(throwable == null && success)
+                ),
+                Duration.ofMillis(delay),
+                "warpRetry" + player.getUniqueId() + ":" + attempt
+        );
+
+        return future;
+    }
+}
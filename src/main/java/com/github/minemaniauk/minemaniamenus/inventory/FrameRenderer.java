@@ -0,0 +1,200 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.inventory;
+
+import com.github.smuddgge.velocityinventory.Inventory;
+import com.github.smuddgge.velocityinventory.InventoryItem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Used to render an inventory that is refreshed.
+ * <p>
+ * Each refresh builds a {@link Frame}, where every item has a signature
+ * that changes when anything shown by the item changes. Only the slots
+ * whose signature differs from the previous frame are set in the
+ * inventory.
+ * <p>
+ * The inventory only lets every click action be removed at once, so
+ * when any slot changes, the actions are removed and the items that
+ * may have click actions are set again with the changed slots. Items
+ * added with {@link Frame#fill}, such as the background, never have
+ * click actions, so they are only set when they change.
+ */
+public class FrameRenderer {
+
+    private static final @NotNull AtomicLong totalSlotsSent = new AtomicLong();
+    private static final @NotNull AtomicLong totalSlotsSkipped = new AtomicLong();
+
+    private final @NotNull Inventory inventory;
+    private @NotNull Map<Integer, String> previousSignatureMap = new HashMap<>();
+
+    /**
+     * Represents an item in a frame.
+     *
+     * @param signature   The item's signature.
+     * @param factory     Used to create the item without slots.
+     * @param interactive If the item may have click actions.
+     */
+    private record Entry(@NotNull String signature, @NotNull Supplier<InventoryItem> factory, boolean interactive) {
+    }
+
+    /**
+     * Represents the items in an inventory for one refresh.
+     * Items set later replace items in the same slots.
+     */
+    public static class Frame {
+
+        private final @NotNull Map<Integer, Entry> slotMap = new HashMap<>();
+
+        /**
+         * Used to set an item in the frame.
+         * The factory should not add any slots to the item,
+         * and may add click actions.
+         *
+         * @param signature Changes when anything shown by the item changes.
+         * @param factory   Used to create the item.
+         * @param slots     The slots to put the item in.
+         * @return This instance.
+         */
+        public @NotNull Frame setItem(@NotNull String signature, @NotNull Supplier<InventoryItem> factory, int... slots) {
+            Entry entry = new Entry(signature, factory, true);
+            for (int slot : slots) {
+                this.slotMap.put(slot, entry);
+            }
+            return this;
+        }
+
+        /**
+         * Used to set an item in a range of slots.
+         * The factory should not add any slots
+         * or click actions to the item.
+         *
+         * @param signature Changes when anything shown by the item changes.
+         * @param factory   Used to create the item.
+         * @param from      The first slot.
+         * @param to        The last slot, inclusive.
+         * @return This instance.
+         */
+        public @NotNull Frame fill(@NotNull String signature, @NotNull Supplier<InventoryItem> factory, int from, int to) {
+            Entry entry = new Entry(signature, factory, false);
+            for (int slot = from; slot <= to; slot++) {
+                this.slotMap.put(slot, entry);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Used to create a frame renderer.
+     *
+     * @param inventory The inventory to render to.
+     */
+    public FrameRenderer(@NotNull Inventory inventory) {
+        this.inventory = inventory;
+    }
+
+    /**
+     * Used to render a frame.
+     * Only the slots that have changed since the last
+     * frame, and the slots that may have click actions
+     * when any slot has changed, will be set.
+     *
+     * @param frame The frame to render.
+     */
+    public synchronized void render(@NotNull Frame frame) {
+        Map<Entry, List<Integer>> changedMap = new LinkedHashMap<>();
+        Map<Entry, List<Integer>> interactiveMap = new LinkedHashMap<>();
+        Map<Integer, String> signatureMap = new HashMap<>();
+
+        for (Map.Entry<Integer, Entry> slotEntry : frame.slotMap.entrySet()) {
+            Entry entry = slotEntry.getValue();
+            signatureMap.put(slotEntry.getKey(), entry.signature());
+
+            if (!entry.signature().equals(this.previousSignatureMap.get(slotEntry.getKey()))) {
+                changedMap.computeIfAbsent(entry, key -> new ArrayList<>()).add(slotEntry.getKey());
+                continue;
+            }
+
+            if (entry.interactive()) {
+                interactiveMap.computeIfAbsent(entry, key -> new ArrayList<>()).add(slotEntry.getKey());
+            }
+        }
+
+        // Remove the click actions of the replaced items, and set
+        // the unchanged items that may have click actions again.
+        if (!changedMap.isEmpty()) {
+            this.inventory.removeActions();
+            interactiveMap.forEach((entry, slots) -> changedMap
+                    .computeIfAbsent(entry, key -> new ArrayList<>())
+                    .addAll(slots)
+            );
+        }
+
+        int sent = 0;
+        for (Map.Entry<Entry, List<Integer>> changed : changedMap.entrySet()) {
+            List<Integer> slots = changed.getValue();
+            InventoryItem item = changed.getKey().factory().get();
+
+            // The inventory treats exactly two slots as a range,
+            // so the last slot is repeated to keep them separate.
+            if (slots.size() == 2) slots.add(slots.get(1));
+
+            this.inventory.setItem(item.addSlots(slots.stream().mapToInt(Integer::intValue).toArray()));
+            sent += new HashSet<>(slots).size();
+        }
+
+        final int skipped = signatureMap.size() - sent;
+
+        this.previousSignatureMap = signatureMap;
+        FrameRenderer.totalSlotsSent.addAndGet(sent);
+        FrameRenderer.totalSlotsSkipped.addAndGet(skipped);
+    }
+
+    /**
+     * Used to forget the previous frame, so the
+     * next frame will set every slot.
+     */
+    public synchronized void reset() {
+        this.previousSignatureMap = new HashMap<>();
+    }
+
+    /**
+     * Used to get the amount of slots set by every frame renderer.
+     *
+     * @return The total amount of slots sent.
+     */
+    public static long getTotalSlotsSent() {
+        return FrameRenderer.totalSlotsSent.get();
+    }
+
+    /**
+     * Used to get the amount of slots left unchanged by every frame renderer.
+     *
+     * @return The total amount of slots skipped.
+     */
+    public static long getTotalSlotsSkipped() {
+        return FrameRenderer.totalSlotsSkipped.get();
+    }
+}
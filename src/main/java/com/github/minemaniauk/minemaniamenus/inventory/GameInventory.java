@@ -25,7 +25,8 @@ import com.github.minemaniauk.api.database.record.GameRoomRecord;
 import com.github.minemaniauk.api.game.GameType;
 import com.github.minemaniauk.api.user.MineManiaUser;
 import com.github.minemaniauk.minemaniamenus.*;
-import com.github.smuddgge.squishydatabase.Query;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomChangeEvent;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomFeed;
 import com.github.smuddgge.velocityinventory.Inventory;
 import com.github.smuddgge.velocityinventory.InventoryItem;
 import com.github.smuddgge.velocityinventory.action.ActionResult;
@@ -37,12 +38,11 @@ import dev.simplix.protocolize.api.inventory.InventoryClick;
 import dev.simplix.protocolize.api.inventory.InventoryClose;
 import dev.simplix.protocolize.data.ItemType;
 import dev.simplix.protocolize.data.inventory.InventoryType;
-import net.querz.nbt.tag.CompoundTag;
 import org.jetbrains.annotations.NotNull;
 
-import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the game inventory.
@@ -50,7 +50,11 @@ import java.util.UUID;
  */
 public class GameInventory extends Inventory {
 
-    private boolean closed;
+    private static final @NotNull List<Integer> ROOM_SLOTS = List.of(27, 36);
+
+    private volatile boolean closed;
+    private volatile @NotNull List<String> shownRooms = List.of();
+    private final @NotNull FrameRenderer renderer = new FrameRenderer(this);
 
     /**
      * Used to create the game inventory.
@@ -66,8 +70,9 @@ public class GameInventory extends Inventory {
         this.addAction(new OpenAction() {
             @Override
             public @NotNull ActionResult onOpen(@NotNull Player player, @NotNull Inventory inventory) {
+                GameInventory.this.subscribe(player, uuid);
+                GameInventory.this.renderer.reset();
                 GameInventory.this.onOpen(player);
-                GameInventory.this.startRunTask(player, uuid);
                 return new ActionResult();
             }
         });
@@ -75,22 +80,29 @@ public class GameInventory extends Inventory {
         this.addAction(new CloseAction() {
             @Override
             public @NotNull ActionResult onClose(@NotNull InventoryClose inventoryClose, @NotNull Inventory inventory) {
-                PublicTaskContainer.getInstance().stopTask("GameInventory" + uuid);
                 GameInventory.this.closed = true;
+                MineManiaMenus.getInstance().getGameRoomFeed().unsubscribe(uuid);
                 return new ActionResult();
             }
         });
     }
 
-    public void startRunTask(@NotNull Player player, @NotNull UUID uuid) {
-        PublicTaskContainer.getInstance().runTask(
-                () -> {
+    /**
+     * Used to subscribe to the game room feed.
+     * This inventory will be refreshed when the
+     * rooms it is showing change.
+     *
+     * @param player The instance of the player viewing the inventory.
+     * @param uuid   The identifier of this viewer.
+     */
+    public void subscribe(@NotNull Player player, @NotNull UUID uuid) {
+        MineManiaMenus.getInstance().getGameRoomFeed().subscribe(
+                uuid,
+                () -> GameInventory.this.closed || !player.isActive(),
+                snapshot -> {
+                    if (snapshot.getSignatures(GameInventory.ROOM_SLOTS.size()).equals(GameInventory.this.shownRooms)) return;
                     GameInventory.this.onOpen(player);
-                    if (GameInventory.this.closed) return;
-                    startRunTask(player, uuid);
-                },
-                Duration.ofSeconds(2),
-                "gameRoomInventory" + uuid
+                }
         );
     }
 
@@ -100,16 +112,18 @@ public class GameInventory extends Inventory {
      * @param player The instance of the player that opened the inventory.
      */
     private void onOpen(@NotNull Player player) {
-        this.removeActions();
-        this.setItem(new InventoryItem()
+        final RenderContext context = new RenderContext(player);
+        FrameRenderer.Frame frame = new FrameRenderer.Frame();
+
+        frame.fill("background", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
-                .setName("&7")
-                .addSlots(0, 53)
+                .setName("&7"), 0, 53
         );
 
         // Spleef.
-        this.setGameItem("&b&lSpleef",
+        this.setGameItem(frame,
+                "&b&lSpleef",
                 "spleef",
                 player,
                 GameType.SPLEEF,
@@ -117,25 +131,24 @@ public class GameInventory extends Inventory {
         );
 
         // Hide and seek.
-        this.setItem(new InventoryItem()
+        frame.setItem("hide_and_seek", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&a&lHide And Seek")
-                .setLore("&eComing soon...")
-                .addSlots(2, 3, 11, 12)
+                .setLore("&eComing soon..."), 2, 3, 11, 12
         );
 
         // Tower defence.
-        this.setItem(new InventoryItem()
+        frame.setItem("tower_defence", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&6&lTower Defence")
-                .setLore("&eComing soon...")
-                .addSlots(4, 5, 13, 14)
+                .setLore("&eComing soon..."), 4, 5, 13, 14
         );
 
         // Tnt run.
-        this.setGameItem("&e&lTnt Run",
+        this.setGameItem(frame,
+                "&e&lTnt Run",
                 "tnt run",
                 player,
                 GameType.TNT_RUN,
@@ -143,16 +156,15 @@ public class GameInventory extends Inventory {
         );
 
         // More.
-        this.setItem(new InventoryItem()
+        frame.setItem("more_games", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&a&lMore Games")
-                .setLore("&eComing soon...")
-                .addSlots(3, 17, 17)
+                .setLore("&eComing soon..."), 3, 17
         );
 
         // Back.
-        this.setItem(new InventoryItem()
+        frame.setItem("back", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&a&lBack")
@@ -163,45 +175,44 @@ public class GameInventory extends Inventory {
                         new MainMenuInventory().open(player);
                         return new ActionResult();
                     }
-                })
-                .addSlots(45)
+                }), 45
         );
 
         // Reload.
-        this.setItem(new InventoryItem()
+        frame.setItem("reload", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&b&lReload Game Room List")
                 .setLore("&7Click to reload the game room list.",
-                        "&7You can also click in any blank space to reload the list.")
-                .addSlots(46)
+                        "&7You can also click in any blank space to reload the list."), 46
         );
 
         // More Rooms.
-        this.setItem(new InventoryItem()
+        frame.setItem("more_rooms", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&f&lMore Rooms")
-                .setLore("&eComing soon...")
-                .addSlots(47, 48, 49, 50)
+                .setLore("&eComing soon..."), 47, 48, 49, 50
         );
 
         // Profile.
-        this.setItem(new InventoryItem()
+        final long paws = context.getPaws();
+        frame.setItem("profile:" + paws, () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&d&lProfile")
                 .setLore("&7",
-                        "&7Paws &f" + new User(player).getPaws())
-                .addSlots(51, 52, 53)
+                        "&7Paws &f" + paws), 51, 52, 53
         );
 
         // Add rooms.
-        this.addRooms(player);
+        this.addRooms(frame, context);
+
+        this.renderer.render(frame);
     }
 
-    private void setGameItem(@NotNull String title, @NotNull String name, @NotNull Player player, @NotNull GameType gameType, int... slots) {
-        this.setItem(new InventoryItem()
+    private void setGameItem(@NotNull FrameRenderer.Frame frame, @NotNull String title, @NotNull String name, @NotNull Player player, @NotNull GameType gameType, int... slots) {
+        frame.setItem("game:" + name, () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName(title)
@@ -209,100 +220,110 @@ public class GameInventory extends Inventory {
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-
-                        GameRoomRecord record = new GameRoomRecord(player.getUniqueId(), gameType);
-                        record.setPrivate(true);
-                        record.save();
-
-                        new GameRoomInventory(record.getUuid()).open(player);
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                        final CompletableFuture<UUID> future = executor.submitOnce(player.getUniqueId(), "createGameRoom", () -> {
+                            GameRoomRecord record = new GameRoomRecord(player.getUniqueId(), gameType);
+                            record.setPrivate(true);
+                            record.save();
+                            MineManiaMenus.getInstance().getGameRoomChangeNotifier().publish(record.getUuid(), GameRoomChangeEvent.Kind.CREATED);
+                            return record.getUuid();
+                        });
+                        if (future == null) return new ActionResult();
+
+                        future.thenAcceptAsync(uuid -> new GameRoomInventory(uuid).open(player), executor.getProxyExecutor());
                         return new ActionResult();
                     }
-                })
-                .addSlots(slots)
+                }), slots
         );
     }
 
-    private void addRooms(@NotNull Player player) {
+    private void addRooms(@NotNull FrameRenderer.Frame frame, @NotNull RenderContext context) {
         // Get public rooms not in an arena.
-        List<GameRoomRecord> roomRecordList = MineManiaMenus.getInstance()
-                .getAPI().getDatabase()
-                .getTable(GameRoomCollection.class)
-                .getRecordList(new Query().match("is_private", false))
-                .stream().filter(gameRoom -> MineManiaMenus.getInstance().getAPI()
-                        .getGameManager()
-                        .getArena(gameRoom.getUuid())
-                        .isEmpty()
-                )
-                .toList();
-
-        // First room.
-        if (roomRecordList.isEmpty()) return;
-        final GameRoomRecord firstRecord = roomRecordList.get(0);
-        GameInventory.setRoomLine(
-                this,
-                firstRecord,
-                27,
-                player
-        );
+        GameRoomFeed.Snapshot snapshot = MineManiaMenus.getInstance().getGameRoomFeed().getSnapshot();
+        this.shownRooms = snapshot.getSignatures(GameInventory.ROOM_SLOTS.size());
 
-        // Second room.
-        if (roomRecordList.size() < 2) return;
-        final GameRoomRecord secondRecord = roomRecordList.get(1);
-        GameInventory.setRoomLine(
-                this,
-                secondRecord,
-                36,
-                player
-        );
+        for (int index = 0; index < GameInventory.ROOM_SLOTS.size(); index++) {
+            if (index >= snapshot.rooms().size()) return;
+
+            GameInventory.setRoomLine(
+                    frame,
+                    snapshot.rooms().get(index),
+                    GameInventory.ROOM_SLOTS.get(index),
+                    context
+            );
+        }
     }
 
-    public static void setRoomLine(@NotNull Inventory inventory, @NotNull GameRoomRecord record, int startSlot, @NotNull Player player) {
+    public static void setRoomLine(@NotNull FrameRenderer.Frame frame, @NotNull GameRoomRecord record, int startSlot, @NotNull RenderContext context) {
+        final String roomSignature = "room:" + GameRoomFeed.getSignature(record);
+        final Player player = context.getViewer();
 
         // Add the users.
         int slot = startSlot - 1;
-        for (MineManiaUser user : record.getPlayers()) {
+        for (MineManiaUser user : context.getMembers(record)) {
             slot++;
             if (slot > startSlot + 5) continue;
 
-            // Create skull texture.
-            CompoundTag tag = new CompoundTag();
-            tag.putString("SkullOwner", user.getName());
-
             // Set the player item.
-            inventory.setItem(new InventoryItem()
+            frame.setItem(roomSignature + ":player:" + user.getName(), () -> new InventoryItem()
                     .setMaterial(ItemType.PLAYER_HEAD)
-                    .setNBT(tag)
-                    .setName("&f&l" + user.getName())
-                    .addSlots(slot)
-            );
+                    .setNBT(MineManiaMenus.getInstance().getSkullCache().getTag(user.getUniqueId(), user.getName()))
+                    .setName("&f&l" + user.getName()), slot);
         }
 
         // Add the game type.
-        inventory.setItem(new InventoryItem()
+        frame.setItem(roomSignature + ":game_type", () -> new InventoryItem()
                 .setMaterial(record.getGameType().getMaterial(new MaterialConverter()))
                 .setName("&f&l" + record.getGameType().getTitle())
-                .setLore("&7This game room will be paying &f" + record.getGameType().getName() + "&7.")
-                .addSlots(startSlot + 6)
+                .setLore("&7This game room will be paying &f" + record.getGameType().getName() + "&7."), startSlot + 6
         );
 
         // Add join item.
-        inventory.setItem(new InventoryItem()
+        frame.setItem(roomSignature + ":join", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&a&lJoin Game Room")
                 .setLore("&7Click to join this game room.",
                         "&7",
                         "&fGame Type &a" + record.getGameType().getName())
-                .addSlots(startSlot + 7, startSlot + 8)
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                        record.addPlayer(player.getUniqueId());
-                        record.save();
-                        new GameRoomInventory(record.getUuid()).open(player);
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                        final CompletableFuture<Boolean> future = executor.submitOnce(player.getUniqueId(), "joinGameRoom", () -> {
+
+                            // Get the latest version of the room, as the
+                            // record may be from a shared snapshot.
+                            GameRoomRecord latest = MineManiaMenus.getInstance().getAPI().getDatabase()
+                                    .getTable(GameRoomCollection.class)
+                                    .getGameRoom(record.getUuid())
+                                    .orElse(null);
+
+                            if (latest == null) return false;
+
+                            // Check if the player has already joined.
+                            if (latest.getPlayerUuids().contains(player.getUniqueId())) return true;
+
+                            latest.addPlayer(player.getUniqueId());
+                            latest.save();
+                            MineManiaMenus.getInstance().getGameRoomChangeNotifier().publish(latest.getUuid(), GameRoomChangeEvent.Kind.UPDATED);
+                            return true;
+
+                        });
+                        if (future == null) return new ActionResult();
+
+                        future.thenAcceptAsync(joined -> {
+                            if (!joined) {
+                                MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player).sendMessage("&7&l> &7This game room no longer exists.");
+                                return;
+                            }
+                            new GameRoomInventory(record.getUuid()).open(player);
+                        }, executor.getProxyExecutor());
                         return new ActionResult();
                     }
-                })
+                }), startSlot + 7, startSlot + 8
         );
     }
 }
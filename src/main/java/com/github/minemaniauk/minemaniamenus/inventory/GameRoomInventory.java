@@ -25,6 +25,9 @@ import com.github.minemaniauk.api.database.record.GameRoomRecord;
 import com.github.minemaniauk.api.game.Arena;
 import com.github.minemaniauk.api.user.MineManiaUser;
 import com.github.minemaniauk.minemaniamenus.*;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomChangeEvent;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomFeed;
+import com.github.minemaniauk.minemaniamenus.gameroom.RoomViewerRegistry;
 import com.github.smuddgge.velocityinventory.Inventory;
 import com.github.smuddgge.velocityinventory.InventoryItem;
 import com.github.smuddgge.velocityinventory.action.ActionResult;
@@ -37,14 +40,15 @@ import dev.simplix.protocolize.api.inventory.InventoryClick;
 import dev.simplix.protocolize.api.inventory.InventoryClose;
 import dev.simplix.protocolize.data.ItemType;
 import dev.simplix.protocolize.data.inventory.InventoryType;
-import net.querz.nbt.tag.CompoundTag;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the game room inventory.
@@ -53,7 +57,8 @@ public class GameRoomInventory extends Inventory {
 
     private final @NotNull UUID gameRoomIdentifier;
     private final @NotNull UUID taskUuid;
-    private boolean closed;
+    private volatile boolean closed;
+    private final @NotNull FrameRenderer renderer = new FrameRenderer(this);
 
     /**
      * Used to create a game room inventory.
@@ -73,7 +78,7 @@ public class GameRoomInventory extends Inventory {
         this.addAction(new OpenAction() {
             @Override
             public @NotNull ActionResult onOpen(@NotNull Player player, @NotNull Inventory inventory) {
-                GameRoomInventory.this.onOpen(player);
+                GameRoomInventory.this.renderer.reset();
                 GameRoomInventory.this.startRunTask(player, taskUuid);
                 return new ActionResult();
             }
@@ -82,168 +87,192 @@ public class GameRoomInventory extends Inventory {
         this.addAction(new CloseAction() {
             @Override
             public @NotNull ActionResult onClose(@NotNull InventoryClose inventoryClose, @NotNull Inventory inventory) {
-                PublicTaskContainer.getInstance().stopTask("gameRoomInventory" + taskUuid);
-                GameRoomInventory.this.closed = true;
+                GameRoomInventory.this.stopRunTask();
                 return new ActionResult();
             }
         });
     }
 
+    /**
+     * Used to render this inventory now and every
+     * time the game room changes, until it is closed.
+     *
+     * @param player The instance of the player viewing the inventory.
+     * @param uuid   The identifier of the viewer.
+     */
     public void startRunTask(@NotNull Player player, @NotNull UUID uuid) {
-        PublicTaskContainer.getInstance().runTask(
-                () -> {
-                    GameRoomInventory.this.onOpen(player);
-                    if (GameRoomInventory.this.closed) return;
-                    startRunTask(player, uuid);
-                },
-                Duration.ofSeconds(2),
-                "gameRoomInventory" + uuid
+        if (this.closed) return;
+
+        MineManiaMenus.getInstance().getRoomViewerRegistry().subscribe(
+                this.gameRoomIdentifier,
+                uuid,
+                () -> GameRoomInventory.this.closed || !player.isActive(),
+                snapshot -> GameRoomInventory.this.onOpen(player, snapshot)
         );
     }
 
     /**
-     * This is called when the inventory is opened.
-     *
-     * @param player The instance of the player that opened the inventory.
+     * Used to stop refreshing this inventory.
      */
-    private void onOpen(@NotNull Player player) {
-        this.removeActions();
-        this.setItem(new InventoryItem()
-                .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
-                .setCustomModelData(1)
-                .setName("&7")
-                .addSlots(0, 53)
-        );
+    public void stopRunTask() {
+        this.closed = true;
+        MineManiaMenus.getInstance().getRoomViewerRegistry().unsubscribe(this.gameRoomIdentifier, this.taskUuid);
+    }
 
-        final GameRoomRecord record = MineManiaMenus.getInstance().getAPI().getDatabase()
-                .getTable(GameRoomCollection.class)
-                .getGameRoom(this.gameRoomIdentifier).orElse(null);
+    /**
+     * This is called when the inventory is opened
+     * and when the game room changes.
+     *
+     * @param player   The instance of the player that opened the inventory.
+     * @param snapshot The latest snapshot of the game room.
+     */
+    private void onOpen(@NotNull Player player, @NotNull RoomViewerRegistry.Snapshot snapshot) {
+        final GameRoomRecord record = snapshot.record();
 
         // Check if the record is null.
         if (record == null) {
-            PublicTaskContainer.getInstance().stopTask("gameRoomInventory" + this.taskUuid);
-            GameRoomInventory.this.closed = true;
+            this.stopRunTask();
             new GameInventory().open(player);
             return;
         }
 
+        final RenderContext context = new RenderContext(player);
+        final MineManiaUser owner = context.getOwner(record);
+        final boolean isOwner = player.getUniqueId().equals(owner.getUniqueId());
+        final String roomSignature = "room:" + GameRoomFeed.getSignature(record) + ":" + owner.getName();
+
+        FrameRenderer.Frame frame = new FrameRenderer.Frame();
+        frame.fill("background", () -> new InventoryItem()
+                .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
+                .setCustomModelData(1)
+                .setName("&7"), 0, 53
+        );
+
         // Set the players.
-        this.setPlayers(record);
+        this.setPlayers(frame, record, context);
 
         // Game type.
-        this.setItem(new InventoryItem()
+        frame.setItem("game_type:" + record.getGameType().getName(), () -> new InventoryItem()
                 .setMaterial(record.getGameType().getMaterial(new MaterialConverter()))
                 .setName("&f&l" + record.getGameType().getTitle())
-                .setLore("&7This game room will be playing &f" + record.getGameType().getName() + "&7.")
-                .addSlots(53)
+                .setLore("&7This game room will be playing &f" + record.getGameType().getName() + "&7."), 53
         );
 
         // Back button.
-        this.setItem(new InventoryItem()
+        frame.setItem("back", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&a&lBack")
                 .setLore("&7Click to go back to the &f/menu&7.")
-                .addSlots(45)
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
                         new MainMenuInventory().open(player);
                         return new ActionResult();
                     }
-                })
+                }), 45
         );
 
         // Reload.
-        this.setItem(new InventoryItem()
+        frame.setItem("reload", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&b&lReload Player List")
                 .setLore("&7Click to reload the player list.",
-                        "&7You can also click in any blank space to reload the list.")
-                .addSlots(25)
+                        "&7You can also click in any blank space to reload the list."), 25
         );
 
         // Leave button.
-        this.setItem(new InventoryItem()
+        frame.setItem(roomSignature + ":leave", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&c&lLeave Game Room")
                 .setLore("&7Click to leave this game room.")
-                .addSlots(46, 47)
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
 
-                        // Check if the player is the owner.
-                        if (record.getOwner().getUniqueId().equals(player.getUniqueId())) {
-                            MineManiaMenus.getInstance().getAPI()
-                                    .getDatabase()
-                                    .getTable(GameRoomCollection.class)
-                                    .removeRecord(record);
+                        final CompletableFuture<Void> future = executor.runOnce(player.getUniqueId(), "leaveGameRoom", () -> {
 
-                            new GameInventory().open(player);
-                            return new ActionResult();
-                        }
+                            // Get the latest instance of the room, as the
+                            // shown record is shared with every viewer.
+                            final GameRoomRecord latest = GameRoomInventory.this.getLatestRecord();
+                            if (latest == null) return;
+
+                            // Check if the player is the owner.
+                            if (player.getUniqueId().equals(latest.getOwner().getUniqueId())) {
+                                MineManiaMenus.getInstance().getAPI()
+                                        .getDatabase()
+                                        .getTable(GameRoomCollection.class)
+                                        .removeRecord(latest);
+                                GameRoomInventory.this.onChange(GameRoomChangeEvent.Kind.REMOVED);
+                                return;
+                            }
+
+                            // Check if the player has already left.
+                            if (!latest.getPlayerUuids().contains(player.getUniqueId())) return;
 
-                        // Update record.
-                        record.removePlayer(player.getUniqueId());
-                        record.save();
+                            // Update record.
+                            latest.removePlayer(player.getUniqueId());
+                            latest.save();
+                            GameRoomInventory.this.onChange(GameRoomChangeEvent.Kind.UPDATED);
 
-                        new GameInventory().open(player);
+                        });
+                        if (future == null) return new ActionResult();
+
+                        future.thenRunAsync(() -> new GameInventory().open(player), executor.getProxyExecutor());
                         return new ActionResult();
                     }
-                })
+                }), 46, 47
         );
 
         // Add start button.
-        this.setStartButton(record, player);
+        this.setStartButton(frame, roomSignature, record, isOwner, context);
 
-        if (player.getUniqueId().equals(record.getOwner().getUniqueId())) {
-            this.setItem(new InventoryItem()
+        if (isOwner) {
+            frame.setItem("invite_players", () -> new InventoryItem()
                     .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                     .setCustomModelData(1)
                     .setName("&b&lInvite Players")
                     .setLore("&7Invite a player to your game room.")
-                    .addSlots(50, 51)
                     .addClickAction(new ClickAction() {
                         @Override
                         public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
                             new GameRoomInvitePlayersInventory(GameRoomInventory.this.gameRoomIdentifier).open(player);
                             return new ActionResult();
                         }
-                    })
+                    }), 50, 51
             );
 
-            this.addOwnerToggle(record, player);
+            this.addOwnerToggle(frame, roomSignature, record, player);
         } else {
-            this.setItem(new InventoryItem()
+            frame.setItem("invite_players_disabled", () -> new InventoryItem()
                     .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                     .setCustomModelData(1)
                     .setName("&7&lInvite Players")
-                    .setLore("&fOnly the owner of the game room can invite players.")
-                    .addSlots(50, 51)
+                    .setLore("&fOnly the owner of the game room can invite players."), 50, 51
             );
             if (record.isPrivate()) {
-                this.setItem(new InventoryItem()
+                frame.setItem("private", () -> new InventoryItem()
                         .setMaterial(ItemType.ENDER_PEARL)
-                        .setName("&f&lThis Game Room is Private")
-                        .addSlots(52)
+                        .setName("&f&lThis Game Room is Private"), 52
                 );
             } else {
-                this.setItem(new InventoryItem()
+                frame.setItem("public", () -> new InventoryItem()
                         .setMaterial(ItemType.ENDER_EYE)
-                        .setName("&f&lThis Game Room is Public")
-                        .addSlots(52)
+                        .setName("&f&lThis Game Room is Public"), 52
                 );
             }
         }
+
+        this.renderer.render(frame);
     }
 
-    private void addOwnerToggle(@NotNull GameRoomRecord record, @NotNull Player player) {
+    private void addOwnerToggle(@NotNull FrameRenderer.Frame frame, @NotNull String roomSignature, @NotNull GameRoomRecord record, @NotNull Player player) {
         // Add lock button.
         if (record.isPrivate()) {
-            this.setItem(new InventoryItem()
+            frame.setItem(roomSignature + ":set_public", () -> new InventoryItem()
                     .setMaterial(ItemType.ENDER_PEARL)
                     .setName("&6&lSet Public")
                     .setLore("&7Should any player be allowed to join",
@@ -251,21 +280,27 @@ public class GameRoomInventory extends Inventory {
                             "&7",
                             "&fCurrently &ePrivate",
                             "&7Only invited players can join.")
-                    .addSlots(52)
                     .addClickAction(new ClickAction() {
                         @Override
                         public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                            new Thread(() -> {
-                                record.setPrivate(false);
-                                record.save();
-                                new GameRoomInventory(GameRoomInventory.this.gameRoomIdentifier).open(player);
-                            }).start();
+                            final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                            final CompletableFuture<Void> future = executor.runOnce(
+                                    player.getUniqueId(), "setGameRoomPrivate",
+                                    () -> GameRoomInventory.this.setPrivate(false)
+                            );
+                            if (future == null) return new ActionResult();
+
+                            future.thenRunAsync(
+                                    () -> new GameRoomInventory(GameRoomInventory.this.gameRoomIdentifier).open(player),
+                                    executor.getProxyExecutor()
+                            );
                             return new ActionResult();
                         }
-                    })
+                    }), 52
             );
         } else {
-            this.setItem(new InventoryItem()
+            frame.setItem(roomSignature + ":set_private", () -> new InventoryItem()
                     .setMaterial(ItemType.ENDER_EYE)
                     .setName("&6&lSet Private")
                     .setLore("&7Should only invited players be",
@@ -273,25 +308,73 @@ public class GameRoomInventory extends Inventory {
                             "&7",
                             "&fCurrently &ePublic",
                             "&7Anyone can join.")
-                    .addSlots(52)
                     .addClickAction(new ClickAction() {
                         @Override
                         public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                            new Thread(() -> {
-                                record.setPrivate(true);
-                                record.save();
-                                new GameRoomInventory(GameRoomInventory.this.gameRoomIdentifier).open(player);
-                            }).start();
+                            final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                            final CompletableFuture<Void> future = executor.runOnce(
+                                    player.getUniqueId(), "setGameRoomPrivate",
+                                    () -> GameRoomInventory.this.setPrivate(true)
+                            );
+                            if (future == null) return new ActionResult();
+
+                            future.thenRunAsync(
+                                    () -> new GameRoomInventory(GameRoomInventory.this.gameRoomIdentifier).open(player),
+                                    executor.getProxyExecutor()
+                            );
                             return new ActionResult();
                         }
-                    })
+                    }), 52
             );
         }
     }
 
-    private void setStartButton(@NotNull GameRoomRecord record, @NotNull Player player) {
-        if (record.getOwner().getUniqueId().equals(player.getUniqueId())) {
-            this.setItem(new InventoryItem()
+    private void setPrivate(boolean isPrivate) {
+
+        // Get the latest instance of the room, as the
+        // shown record is shared with every viewer.
+        final GameRoomRecord latest = this.getLatestRecord();
+        if (latest == null || latest.isPrivate() == isPrivate) return;
+
+        latest.setPrivate(isPrivate);
+        latest.save();
+        this.onChange(GameRoomChangeEvent.Kind.UPDATED);
+    }
+
+    /**
+     * Used to get the latest instance of this game room
+     * from the database.
+     *
+     * @return The instance of the game room, or null if it no longer exists.
+     */
+    private @Nullable GameRoomRecord getLatestRecord() {
+        return MineManiaMenus.getInstance().getAPI()
+                .getDatabase()
+                .getTable(GameRoomCollection.class)
+                .getGameRoom(this.gameRoomIdentifier)
+                .orElse(null);
+    }
+
+    /**
+     * Used to show a change made to this game room to its
+     * viewers on this proxy, and then tell the other proxies.
+     *
+     * @param kind The kind of change.
+     */
+    private void onChange(@NotNull GameRoomChangeEvent.Kind kind) {
+        MineManiaMenus.getInstance().getRoomViewerRegistry().refresh(this.gameRoomIdentifier);
+        MineManiaMenus.getInstance().getGameRoomChangeNotifier().publish(this.gameRoomIdentifier, kind);
+    }
+
+    private void setStartButton(@NotNull FrameRenderer.Frame frame, @NotNull String roomSignature, @NotNull GameRoomRecord record, boolean isOwner, @NotNull RenderContext context) {
+        final Player player = context.getViewer();
+        if (isOwner) {
+            final List<String> arenaLore = context.getArenaLore(record.getGameType())
+                    .stream().map(line -> "&7- &f" + line)
+                    .toList();
+
+            frame.setItem(roomSignature + ":start:" + arenaLore, () -> new InventoryItem()
                     .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                     .setCustomModelData(1)
                     .setName("&a&lStart Game")
@@ -299,49 +382,37 @@ public class GameRoomInventory extends Inventory {
                             "&7",
                             "&e&lAvailable Arenas"
                     )
-                    .addLore(MineManiaMenus.getInstance().getAPI()
-                            .getGameManager()
-                            .getArenaAvailabilityAsLore(record.getGameType())
-                            .stream().map(line -> "&7- &f" + line)
-                            .toList()
-                    )
-                    .addSlots(48, 49)
+                    .addLore(arenaLore)
                     .addClickAction(new ClickAction() {
                         @Override
                         public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                            GameRoomInventory.this.startGame(record, player);
+                            MineManiaMenus.getInstance().getMenuExecutor().runOnce(
+                                    player.getUniqueId(), "startGame",
+                                    () -> GameRoomInventory.this.startGame(player)
+                            );
                             return new ActionResult();
                         }
-                    })
+                    }), 48, 49
             );
             return;
         }
 
-        this.setItem(new InventoryItem()
+        frame.setItem("start_disabled", () -> new InventoryItem()
                 .setMaterial(ItemType.PINK_STAINED_GLASS_PANE)
                 .setCustomModelData(1)
                 .setName("&7&lStart Game")
-                .setLore("&fOnly the owner of the game room can start the game.")
-                .addSlots(48, 49)
+                .setLore("&fOnly the owner of the game room can start the game."), 48, 49
         );
     }
 
-    private void setPlayers(@NotNull GameRoomRecord record) {
-
-        // Get the owner.
-        MineManiaUser owner = record.getOwner();
-
-        // Get the owner skull component.
-        CompoundTag ownerTag = new CompoundTag();
-        ownerTag.putString("SkullOwner", owner.getName());
+    private void setPlayers(@NotNull FrameRenderer.Frame frame, @NotNull GameRoomRecord record, @NotNull RenderContext context) {
+        final MineManiaUser owner = context.getOwner(record);
 
         // Add the owner.
-        this.setItem(new InventoryItem()
+        frame.setItem("owner:" + owner.getName(), () -> new InventoryItem()
                 .setMaterial(ItemType.PLAYER_HEAD)
-                .setNBT(ownerTag)
-                .setName("&6&l" + owner.getName())
-                .addSlots(10)
-        );
+                .setNBT(MineManiaMenus.getInstance().getSkullCache().getTag(owner.getUniqueId(), owner.getName()))
+                .setName("&6&l" + owner.getName()), 10);
 
         // Create the iterator for the slots.
         Iterator<Integer> iterator = List.of(
@@ -349,7 +420,7 @@ public class GameRoomInventory extends Inventory {
                 19, 20, 21, 22, 23, 24
         ).iterator();
 
-        for (MineManiaUser user : record.getPlayers()) {
+        for (MineManiaUser user : context.getMembers(record)) {
 
             // Ensure they are not the owner.
             if (user.getUniqueId().equals(owner.getUniqueId())) continue;
@@ -357,32 +428,39 @@ public class GameRoomInventory extends Inventory {
             // Check if there are any more slots.
             if (!iterator.hasNext()) return;
 
-            // Create skull texture.
-            CompoundTag tag = new CompoundTag();
-            tag.putString("SkullOwner", user.getName());
-
             // Set the player's item.
-            this.setItem(new InventoryItem()
+            frame.setItem("player:" + user.getName(), () -> new InventoryItem()
                     .setMaterial(ItemType.PLAYER_HEAD)
-                    .setNBT(tag)
-                    .setName("&f&l" + user.getName())
-                    .addSlots(iterator.next())
-            );
+                    .setNBT(MineManiaMenus.getInstance().getSkullCache().getTag(user.getUniqueId(), user.getName()))
+                    .setName("&f&l" + user.getName()), iterator.next());
         }
     }
 
-    private void startGame(@NotNull GameRoomRecord record, @NotNull Player player) {
+    private void startGame(@NotNull Player player) {
 
         // Create a user for the player.
-        User user = new User(player);
+        User user = MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player);
+
+        // Get the latest instance of the room, so the
+        // players that have just joined are included.
+        final GameRoomRecord record = this.getLatestRecord();
+        if (record == null) {
+            user.sendMessage("&c&l> &cThis game room no longer exists.");
+            return;
+        }
+
+        // Check if the game has already been started.
+        if (MineManiaMenus.getInstance().getAPI().getGameManager().getArena(record.getUuid()).isPresent()) {
+            user.sendMessage("&7&l> &7This game room has already been given an arena.");
+            return;
+        }
 
         // Message the owner.
         user.sendMessage("&7&l> &7Searching for an arena...");
 
-        // Check if there is an available arena.
-        Arena arena = MineManiaMenus.getInstance().getAPI()
-                .getGameManager()
-                .getFirstAvailableArena(record.getGameType(), record.getPlayerUuids().size())
+        // Reserve an available arena for the game room.
+        Arena arena = MineManiaMenus.getInstance().getArenaReserver()
+                .reserve(record.getUuid(), record.getGameType(), record.getPlayerUuids().size())
                 .orElse(null);
 
         // Check if it returned an arena.
@@ -391,12 +469,9 @@ public class GameRoomInventory extends Inventory {
             return;
         }
 
-        // Set game room identifier before other rooms take the arena.
-        arena.setGameRoomIdentifier(record.getUuid());
-        arena.save();
-
         // Start the game.
         arena.activate();
+        MineManiaMenus.getInstance().getGameRoomChangeNotifier().publish(record.getUuid(), GameRoomChangeEvent.Kind.STARTED);
 
         // Attempt to get the instance of the server.
         Optional<RegisteredServer> optionalRegisteredServer = MineManiaMenus.getInstance().getServer(arena.getServerName());
@@ -404,11 +479,21 @@ public class GameRoomInventory extends Inventory {
             throw new RuntimeException("Could nto find server with name: " + arena.getServerName());
         }
 
-        // Warp players.
-        for (MineManiaUser mineManiaUser : record.getPlayers()) {
-            Optional<Player> optionalPlayer = MineManiaMenus.getInstance().getPlayer(mineManiaUser);
-            if (optionalPlayer.isEmpty()) continue;
-            new User(optionalPlayer.get()).send(optionalRegisteredServer.get());
+        // Get the players that are online.
+        List<Player> playerList = new ArrayList<>();
+        for (UUID playerUuid : record.getPlayerUuids()) {
+            MineManiaMenus.getInstance().getProxyServer().getPlayer(playerUuid).ifPresent(playerList::add);
         }
+
+        // Warp players and report back to the owner.
+        MineManiaMenus.getInstance().getWarpCoordinator()
+                .warp(playerList, optionalRegisteredServer.get())
+                .thenAccept(report -> {
+                    user.sendDynamicMessage("&7&l> &7Warped &f" + report.arrived() + "/" + report.total()
+                            + " &7players in &f" + report.millis() + "ms&7.");
+
+                    if (report.failedNames().isEmpty()) return;
+                    user.sendDynamicMessage("&c&l> &cCould not warp &f" + String.join(", ", report.failedNames()) + "&c.");
+                });
     }
 }
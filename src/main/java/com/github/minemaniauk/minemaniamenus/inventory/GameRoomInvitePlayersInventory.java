@@ -23,40 +23,94 @@ package com.github.minemaniauk.minemaniamenus.inventory;
 import com.github.minemaniauk.api.database.collection.GameRoomCollection;
 import com.github.minemaniauk.api.database.record.GameRoomRecord;
 import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MenuExecutor;
 import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
-import com.github.minemaniauk.minemaniamenus.PublicTaskContainer;
 import com.github.minemaniauk.minemaniamenus.User;
 import com.github.smuddgge.velocityinventory.Inventory;
 import com.github.smuddgge.velocityinventory.InventoryItem;
 import com.github.smuddgge.velocityinventory.action.ActionResult;
 import com.github.smuddgge.velocityinventory.action.action.ClickAction;
-import com.github.smuddgge.velocityinventory.action.action.CloseAction;
 import com.github.smuddgge.velocityinventory.action.action.OpenAction;
 import com.velocitypowered.api.proxy.Player;
 import dev.simplix.protocolize.api.inventory.InventoryClick;
-import dev.simplix.protocolize.api.inventory.InventoryClose;
 import dev.simplix.protocolize.data.ItemType;
 import dev.simplix.protocolize.data.inventory.InventoryType;
-import net.querz.nbt.tag.CompoundTag;
 import org.jetbrains.annotations.NotNull;
 
-import java.time.Duration;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Represents the inventory used to invite players to a game room.
+ * <p>
+ * The online players are copied into a sorted snapshot when the
+ * inventory is opened, and only the current page of heads is rendered.
+ * The snapshot can be filtered by the player's server or by players
+ * that have not been invited. The players that have already been
+ * invited are read from the invite index.
+ */
 public class GameRoomInvitePlayersInventory extends Inventory {
 
+    /**
+     * The amount of player heads shown on each page.
+     */
+    public static final int PAGE_SIZE = 45;
+
     private final @NotNull UUID gameRoomIdentifier;
 
+    private @NotNull List<Player> playerList;
+    private @NotNull List<Player> shownList;
+    private @NotNull Set<UUID> invitedSet;
+    private @NotNull Filter filter;
+    private int page;
+
+    /**
+     * Represents the filters that can be applied to the players.
+     */
+    public enum Filter {
+        ALL("All Players"),
+        SAME_SERVER("Players On Your Server"),
+        NOT_INVITED("Players Not Invited");
+
+        private final @NotNull String title;
+
+        Filter(@NotNull String title) {
+            this.title = title;
+        }
+
+        /**
+         * Used to get the filter's title.
+         *
+         * @return The title.
+         */
+        public @NotNull String getTitle() {
+            return this.title;
+        }
+
+        /**
+         * Used to get the filter after this one.
+         *
+         * @return The next filter.
+         */
+        public @NotNull Filter next() {
+            return Filter.values()[(this.ordinal() + 1) % Filter.values().length];
+        }
+    }
+
     public GameRoomInvitePlayersInventory(@NotNull UUID gameRoomIdentifier) {
         super(InventoryType.GENERIC_9X6);
 
         this.gameRoomIdentifier = gameRoomIdentifier;
+        this.playerList = new ArrayList<>();
+        this.shownList = new ArrayList<>();
+        this.invitedSet = new HashSet<>();
+        this.filter = Filter.ALL;
+        this.page = 0;
 
         // Custom inventory character.
         this.setTitle(MessageManager.convertToLegacy("&8&lInvite Players"));
 
         // Add open action.
-        final UUID uuid = UUID.randomUUID();
         this.addAction(new OpenAction() {
             @Override
             public @NotNull ActionResult onOpen(@NotNull Player player, @NotNull Inventory inventory) {
@@ -64,29 +118,40 @@ public class GameRoomInvitePlayersInventory extends Inventory {
                 return new ActionResult();
             }
         });
+    }
 
-        this.addAction(new CloseAction() {
-            @Override
-            public @NotNull ActionResult onClose(@NotNull InventoryClose inventoryClose, @NotNull Inventory inventory) {
-                PublicTaskContainer.getInstance().stopTask("GameRoomInvitePlayersInventory" + uuid);
-                return new ActionResult();
-            }
-        });
+    /**
+     * Used to get the amount of pages in the filtered snapshot.
+     *
+     * @return The amount of pages. This will always be at least one.
+     */
+    public int getPageAmount() {
+        return Math.max(1, (this.shownList.size() + PAGE_SIZE - 1) / PAGE_SIZE);
     }
 
     private void onOpen(@NotNull Player player) {
+        this.playerList = GameRoomInvitePlayersInventory.createSnapshot(player);
+        this.invitedSet = new HashSet<>(MineManiaMenus.getInstance().getInviteIndex()
+                .getInvitedSet(this.gameRoomIdentifier));
+        this.render(player);
+    }
+
+    private void render(@NotNull Player player) {
+        this.shownList = this.applyFilter(player);
+        this.page = Math.min(this.page, this.getPageAmount() - 1);
+
         this.removeActions();
         this.setItem(new InventoryItem().setMaterial(ItemType.AIR).addSlots(0, 53));
 
+        int from = this.page * PAGE_SIZE;
+        int to = Math.min(from + PAGE_SIZE, this.shownList.size());
+
         int slot = -1;
-        for (Player invitePlayer : MineManiaMenus.getInstance().getProxyServer().getAllPlayers()) {
+        for (Player invitePlayer : this.shownList.subList(from, to)) {
             slot++;
-            if (slot > 44) continue;
 
             // Check if the player has already been invited.
-            if (MineManiaMenus.getInstance().getAPI().getGameManager()
-                    .hasBeenInvited(invitePlayer.getUniqueId(), this.gameRoomIdentifier)) {
-
+            if (this.invitedSet.contains(invitePlayer.getUniqueId())) {
                 this.setItem(new InventoryItem()
                         .setMaterial(ItemType.BLACK_STAINED_GLASS_PANE)
                         .setName("&f&l" + invitePlayer.getGameProfile().getName() + " &a&lHas Been Invited")
@@ -95,14 +160,10 @@ public class GameRoomInvitePlayersInventory extends Inventory {
                 continue;
             }
 
-            // Create skull texture.
-            CompoundTag tag = new CompoundTag();
-            tag.putString("SkullOwner", invitePlayer.getGameProfile().getName());
-
             // Set the player's item.
             this.setItem(new InventoryItem()
                     .setMaterial(ItemType.PLAYER_HEAD)
-                    .setNBT(tag)
+                    .setNBT(MineManiaMenus.getInstance().getSkullCache().getTag(invitePlayer))
                     .setName("&6&lInvite &f&l" + invitePlayer.getGameProfile().getName())
                     .setLore("&7Click to send a invite to this player.")
                     .addSlots(slot)
@@ -110,34 +171,65 @@ public class GameRoomInvitePlayersInventory extends Inventory {
                         @Override
                         public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
                             GameRoomInvitePlayersInventory.this.removeActions();
+                            final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                            final CompletableFuture<Boolean> future = executor.submitOnce(player.getUniqueId(), "sendInvite:" + invitePlayer.getUniqueId(), () -> {
+
+                                // Get the game room.
+                                GameRoomRecord record = MineManiaMenus.getInstance().getAPI().getDatabase()
+                                        .getTable(GameRoomCollection.class)
+                                        .getGameRoom(GameRoomInvitePlayersInventory.this.gameRoomIdentifier)
+                                        .orElse(null);
+
+                                if (record == null) return false;
+
+                                // Check if the player has already been invited.
+                                if (MineManiaMenus.getInstance().getInviteIndex()
+                                        .isInvited(record.getUuid(), invitePlayer.getUniqueId())) return true;
+
+                                MineManiaMenus.getInstance().getAPI().getGameManager()
+                                        .sendInvite(invitePlayer.getUniqueId(), record);
 
-                            // Get the game room.
-                            GameRoomRecord record = MineManiaMenus.getInstance().getAPI().getDatabase()
-                                    .getTable(GameRoomCollection.class)
-                                    .getGameRoom(GameRoomInvitePlayersInventory.this.gameRoomIdentifier)
-                                    .orElse(null);
+                                MineManiaMenus.getInstance().getInviteIndex()
+                                        .add(record.getUuid(), invitePlayer.getUniqueId());
+                                return true;
 
-                            if (record == null) {
-                                new User(player).sendMessage("&7&l> &7The game room you are in no longer exists.");
-                                new MainMenuInventory().open(player);
-                                return new ActionResult();
-                            }
+                            });
+                            if (future == null) return new ActionResult();
 
-                            MineManiaMenus.getInstance().getAPI().getGameManager()
-                                    .sendInvite(invitePlayer.getUniqueId(), record);
+                            // Render on both paths, as the click actions were removed.
+                            future.whenCompleteAsync((sent, exception) -> {
+                                if (exception != null) {
+                                    MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player).sendMessage("&c&l> &cUnable to send the invite, please try again.");
+                                    GameRoomInvitePlayersInventory.this.render(player);
+                                    return;
+                                }
 
-                            GameRoomInvitePlayersInventory.this.onOpen(player);
+                                if (!sent) {
+                                    MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player).sendMessage("&7&l> &7The game room you are in no longer exists.");
+                                    new MainMenuInventory().open(player);
+                                    return;
+                                }
+
+                                GameRoomInvitePlayersInventory.this.invitedSet.add(invitePlayer.getUniqueId());
+                                GameRoomInvitePlayersInventory.this.render(player);
+                            }, executor.getProxyExecutor());
                             return new ActionResult();
                         }
                     })
             );
         }
 
+        this.setPageControls(player);
+
         this.setItem(new InventoryItem()
                 .setMaterial(ItemType.LIME_STAINED_GLASS_PANE)
                 .setName("&a&lBack To Game Room")
                 .setLore("&7Click to go back to the game room.")
-                .addSlots(45, 53)
+
+                // Two slots are treated as a range, so the
+                // last slot is repeated to set only 45 and 53.
+                .addSlots(45, 53, 53)
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
@@ -147,4 +239,112 @@ public class GameRoomInvitePlayersInventory extends Inventory {
                 })
         );
     }
+
+    private void setPageControls(@NotNull Player player) {
+
+        this.setItem(new InventoryItem()
+                .setMaterial(ItemType.PAPER)
+                .setName("&f&lPage &e" + (this.page + 1) + " &f&lof &e" + this.getPageAmount())
+                .setLore("&7" + this.shownList.size() + " players can be invited.")
+                .addSlots(49)
+        );
+
+        this.setItem(new InventoryItem()
+                .setMaterial(ItemType.HOPPER)
+                .setName("&e&lShowing &f&l" + this.filter.getTitle())
+                .setLore("&7Click to show &f" + this.filter.next().getTitle() + "&7.")
+                .addSlots(46)
+                .addClickAction(new ClickAction() {
+                    @Override
+                    public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
+                        GameRoomInvitePlayersInventory.this.filter = GameRoomInvitePlayersInventory.this.filter.next();
+                        GameRoomInvitePlayersInventory.this.page = 0;
+                        GameRoomInvitePlayersInventory.this.render(player);
+                        return new ActionResult();
+                    }
+                })
+        );
+
+        if (this.page > 0) {
+            this.setItem(new InventoryItem()
+                    .setMaterial(ItemType.ARROW)
+                    .setName("&e&lPrevious Page")
+                    .setLore("&7Click to go to the previous page.")
+                    .addSlots(48)
+                    .addClickAction(new ClickAction() {
+                        @Override
+                        public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
+                            GameRoomInvitePlayersInventory.this.page--;
+                            GameRoomInvitePlayersInventory.this.render(player);
+                            return new ActionResult();
+                        }
+                    })
+            );
+        }
+
+        if (this.page < this.getPageAmount() - 1) {
+            this.setItem(new InventoryItem()
+                    .setMaterial(ItemType.ARROW)
+                    .setName("&e&lNext Page")
+                    .setLore("&7Click to go to the next page.")
+                    .addSlots(50)
+                    .addClickAction(new ClickAction() {
+                        @Override
+                        public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
+                            GameRoomInvitePlayersInventory.this.page++;
+                            GameRoomInvitePlayersInventory.this.render(player);
+                            return new ActionResult();
+                        }
+                    })
+            );
+        }
+    }
+
+    /**
+     * Used to get the players in the snapshot that
+     * match the current filter, in the same order.
+     *
+     * @param player The player inviting.
+     * @return The filtered list of players.
+     */
+    private @NotNull List<Player> applyFilter(@NotNull Player player) {
+        return switch (this.filter) {
+            case ALL -> this.playerList;
+            case SAME_SERVER -> {
+                final String serverName = player.getCurrentServer()
+                        .map(connection -> connection.getServerInfo().getName())
+                        .orElse(null);
+
+                yield this.playerList.stream()
+                        .filter(invitePlayer -> serverName != null && invitePlayer.getCurrentServer()
+                                .map(connection -> connection.getServerInfo().getName().equals(serverName))
+                                .orElse(false))
+                        .toList();
+            }
+            case NOT_INVITED -> this.playerList.stream()
+                    .filter(invitePlayer -> !this.invitedSet.contains(invitePlayer.getUniqueId()))
+                    .toList();
+        };
+    }
+
+    /**
+     * Used to create a sorted snapshot of the players
+     * that can be invited by a player.
+     * This will not include the player or vanished players.
+     *
+     * @param player The player inviting.
+     * @return The sorted list of players.
+     */
+    private static @NotNull List<Player> createSnapshot(@NotNull Player player) {
+        List<Player> playerList = new ArrayList<>();
+
+        for (Player invitePlayer : MineManiaMenus.getInstance().getProxyServer().getAllPlayers()) {
+            if (invitePlayer.getUniqueId().equals(player.getUniqueId())) continue;
+            if (MineManiaMenus.getInstance().getVanishIndex().isVanished(invitePlayer)) continue;
+            playerList.add(invitePlayer);
+        }
+
+        playerList.sort(Comparator.comparing(Player::getUsername, String.CASE_INSENSITIVE_ORDER));
+        return playerList;
+    }
 }
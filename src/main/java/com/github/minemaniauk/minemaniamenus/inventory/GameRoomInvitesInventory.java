@@ -23,9 +23,12 @@ package com.github.minemaniauk.minemaniamenus.inventory;
 import com.github.minemaniauk.api.database.collection.GameRoomCollection;
 import com.github.minemaniauk.api.database.record.GameRoomInviteRecord;
 import com.github.minemaniauk.api.database.record.GameRoomRecord;
+import com.github.minemaniauk.api.user.MineManiaUser;
 import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MenuExecutor;
 import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
 import com.github.minemaniauk.minemaniamenus.User;
+import com.github.minemaniauk.minemaniamenus.gameroom.GameRoomChangeEvent;
 import com.github.smuddgge.velocityinventory.Inventory;
 import com.github.smuddgge.velocityinventory.InventoryItem;
 import com.github.smuddgge.velocityinventory.action.ActionResult;
@@ -39,12 +42,22 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the game room invites inventory.
  */
 public class GameRoomInvitesInventory extends Inventory {
 
+    /**
+     * Represents the result of accepting an invite.
+     */
+    private enum AcceptResult {
+        ACCEPTED,
+        INVITE_REMOVED,
+        ROOM_REMOVED
+    }
+
     /**
      * Used to create a game room invites inventory.
      */
@@ -86,18 +99,20 @@ public class GameRoomInvitesInventory extends Inventory {
         // Check if the invite is valid.
         if (gameRoom == null) {
             record.remove();
+            MineManiaMenus.getInstance().getInviteIndex().invalidate(UUID.fromString(record.gameRoomUuid));
             new GameRoomInvitesInventory().open(player);
             return;
         }
 
-        this.setTitle(MessageManager.convertToLegacy("&8&lInvite From " + gameRoom.getOwner().getName()));
+        final MineManiaUser owner = gameRoom.getOwner();
+        this.setTitle(MessageManager.convertToLegacy("&8&lInvite From " + owner.getName()));
 
         this.setItem(new InventoryItem()
                 .setMaterial(ItemType.LIME_STAINED_GLASS_PANE)
                 .setName("&a&lAccept Invite")
                 .setLore("&7Click to accept the invite.",
                         "&7",
-                        "&fFrom &e" + gameRoom.getOwner().getName(),
+                        "&fFrom &e" + owner.getName(),
                         "&fGame &a" + gameRoom.getGameType().getTitle()
                 )
                 .addSlots(0, 1, 2, 3,
@@ -106,13 +121,59 @@ public class GameRoomInvitesInventory extends Inventory {
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                        record.remove();
-
-                        gameRoom.addPlayer(player.getUniqueId());
-                        gameRoom.save();
-
-                        new User(player).sendMessage("&7&l> &7You have been added to the game room.");
-                        new GameRoomInventory(gameRoom.getUuid()).open(player);
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                        final CompletableFuture<AcceptResult> future = executor.submitOnce(player.getUniqueId(), "acceptInvite", () -> {
+
+                            // Check the invite has not been removed since the menu was opened.
+                            boolean isInvited = MineManiaMenus.getInstance().getAPI()
+                                    .getGameManager()
+                                    .getInviteList(player.getUniqueId())
+                                    .stream().anyMatch(invite -> invite.gameRoomUuid.equals(record.gameRoomUuid));
+
+                            if (!isInvited) return AcceptResult.INVITE_REMOVED;
+
+                            record.remove();
+                            MineManiaMenus.getInstance().getInviteIndex().remove(gameRoom.getUuid(), player.getUniqueId());
+
+                            // Get the latest version of the room, as it
+                            // may have changed since the menu was opened.
+                            GameRoomRecord latest = MineManiaMenus.getInstance().getAPI().getDatabase()
+                                    .getTable(GameRoomCollection.class)
+                                    .getGameRoom(gameRoom.getUuid())
+                                    .orElse(null);
+
+                            if (latest == null) return AcceptResult.ROOM_REMOVED;
+
+                            // Check if the player has already joined.
+                            if (latest.getPlayerUuids().contains(player.getUniqueId())) return AcceptResult.ACCEPTED;
+
+                            latest.addPlayer(player.getUniqueId());
+                            latest.save();
+                            MineManiaMenus.getInstance().getGameRoomChangeNotifier().publish(latest.getUuid(), GameRoomChangeEvent.Kind.UPDATED);
+                            return AcceptResult.ACCEPTED;
+
+                        });
+                        if (future == null) return new ActionResult();
+
+                        future.thenAcceptAsync(result -> {
+                            final User user = MineManiaMenus.getInstance().getUserSessionRegistry().getUser(player);
+
+                            switch (result) {
+                                case ACCEPTED -> {
+                                    user.sendMessage("&7&l> &7You have been added to the game room.");
+                                    new GameRoomInventory(gameRoom.getUuid()).open(player);
+                                }
+                                case INVITE_REMOVED -> {
+                                    user.sendMessage("&7&l> &7This invite is no longer valid.");
+                                    new GameRoomInvitesInventory().open(player);
+                                }
+                                case ROOM_REMOVED -> {
+                                    user.sendMessage("&7&l> &7This game room no longer exists.");
+                                    new GameRoomInvitesInventory().open(player);
+                                }
+                            }
+                        }, executor.getProxyExecutor());
                         return new ActionResult();
                     }
                 })
@@ -123,7 +184,7 @@ public class GameRoomInvitesInventory extends Inventory {
                 .setName("&c&lDecline Invite")
                 .setLore("&7Click to accept the invite.",
                         "&7",
-                        "&fFrom &e" + gameRoom.getOwner().getName(),
+                        "&fFrom &e" + owner.getName(),
                         "&fGame &a" + gameRoom.getGameType().getTitle()
                 )
                 .addSlots(5, 6, 7, 8,
@@ -132,8 +193,16 @@ public class GameRoomInvitesInventory extends Inventory {
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
-                        record.remove();
-                        new GameRoomInvitesInventory().open(player);
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
+
+                        final CompletableFuture<Void> future = executor.runOnce(player.getUniqueId(), "declineInvite", () -> {
+                            record.remove();
+                            MineManiaMenus.getInstance().getInviteIndex().remove(gameRoom.getUuid(), player.getUniqueId());
+
+                        });
+                        if (future == null) return new ActionResult();
+
+                        future.thenRunAsync(() -> new GameRoomInvitesInventory().open(player), executor.getProxyExecutor());
                         return new ActionResult();
                     }
                 })
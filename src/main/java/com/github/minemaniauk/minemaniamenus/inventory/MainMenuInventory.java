@@ -23,6 +23,7 @@ package com.github.minemaniauk.minemaniamenus.inventory;
 import com.github.minemaniauk.api.database.collection.GameRoomCollection;
 import com.github.minemaniauk.api.database.record.GameRoomRecord;
 import com.github.minemaniauk.minemaniamenus.MessageManager;
+import com.github.minemaniauk.minemaniamenus.MenuExecutor;
 import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
 import com.github.minemaniauk.minemaniamenus.User;
 import com.github.smuddgge.velocityinventory.Inventory;
@@ -38,6 +39,7 @@ import dev.simplix.protocolize.data.inventory.InventoryType;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the main menu inventory.
@@ -72,7 +74,8 @@ public class MainMenuInventory extends Inventory {
      * @param player The instance of the player that opened the inventory.
      */
     private void onOpen(@NotNull Player player) {
-        User user = new User(player);
+        final RenderContext context = new RenderContext(player);
+        final User user = context.getUser();
 
         // Create the smp item.
         this.setTeleportItem(user,
@@ -100,20 +103,26 @@ public class MainMenuInventory extends Inventory {
                 .addClickAction(new ClickAction() {
                     @Override
                     public @NotNull ActionResult onClick(@NotNull InventoryClick inventoryClick, @NotNull Inventory inventory) {
+                        final MenuExecutor executor = MineManiaMenus.getInstance().getMenuExecutor();
 
-                        final GameRoomRecord record = MineManiaMenus.getInstance().getAPI().getDatabase()
+                        final CompletableFuture<GameRoomRecord> future = executor.submitOnce(player.getUniqueId(), "getGameRoom", () -> MineManiaMenus.getInstance().getAPI().getDatabase()
                                 .getTable(GameRoomCollection.class)
                                 .getGameRoomFromPlayer(player.getUniqueId())
-                                .orElse(null);
+                                .orElse(null)
+                        );
+                        if (future == null) return new ActionResult();
 
-                        // Check if they are in a game room.
-                        if (record != null) {
-                            new GameRoomInventory(record.getUuid()).open(player);
-                            return new ActionResult();
-                        }
+                        future.thenAcceptAsync(record -> {
+
+                            // Check if they are in a game room.
+                            if (record != null) {
+                                new GameRoomInventory(record.getUuid()).open(player);
+                                return;
+                            }
 
-                        GameInventory gameInventory = new GameInventory();
-                        gameInventory.open(player);
+                            GameInventory gameInventory = new GameInventory();
+                            gameInventory.open(player);
+                        }, executor.getProxyExecutor());
                         return new ActionResult();
                     }
                 })
@@ -155,7 +164,7 @@ public class MainMenuInventory extends Inventory {
                 .setName("&d&lProfile")
                 .setLore("&eComing soon...",
                         "&7",
-                        "&7Paws &f" + new User(player).getPaws())
+                        "&7Paws &f" + context.getPaws())
                 .addSlots(23, 24, 25, 26,
                         32, 33, 34, 35,
                         41, 42, 43, 44,
@@ -170,7 +179,7 @@ public class MainMenuInventory extends Inventory {
                 .setName(title)
                 .addLore(loreLine)
                 .addLore("&7")
-                .addLore("&aOnline &f" + MineManiaMenus.getInstance().getAmountOnline(serverName))
+                .addLore("&aOnline &f" + MineManiaMenus.getInstance().getPlayerCountService().getDisplayed(serverName))
                 .addSlots(slots)
                 .addClickAction(new ClickAction() {
                     @Override
@@ -184,7 +193,7 @@ public class MainMenuInventory extends Inventory {
                         }
 
                         // Otherwise, attempt connecting them to the server.
-                        user.sendMessage("&7Teleporting to &f" + serverName + "...");
+                        user.sendDynamicMessage("&7Teleporting to &f" + serverName + "...");
                         user.send(optionalRegisteredServer.get());
                         return new ActionResult();
                     }
@@ -0,0 +1,159 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.inventory;
+
+import com.github.minemaniauk.api.database.record.GameRoomRecord;
+import com.github.minemaniauk.api.game.GameType;
+import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.minemaniamenus.MineManiaMenus;
+import com.github.minemaniauk.minemaniamenus.User;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Represents the lookups made while rendering one frame of a menu.
+ * <p>
+ * Each lookup is made once and remembered for the rest of the frame,
+ * so the different parts of a menu can ask for the same owner,
+ * members or arenas without going back to the database.
+ * A context should not be kept after the frame is rendered.
+ */
+public class RenderContext {
+
+    private static final @NotNull AtomicLong totalLookups = new AtomicLong();
+    private static final @NotNull AtomicLong totalLookupsSaved = new AtomicLong();
+
+    private final @NotNull Player viewer;
+    private final @NotNull Map<String, Object> memoMap = new HashMap<>();
+
+    /**
+     * Used to create a render context.
+     *
+     * @param viewer The player the frame is rendered for.
+     */
+    public RenderContext(@NotNull Player viewer) {
+        this.viewer = viewer;
+    }
+
+    /**
+     * Used to get the player the frame is rendered for.
+     *
+     * @return The viewer.
+     */
+    public @NotNull Player getViewer() {
+        return this.viewer;
+    }
+
+    /**
+     * Used to get the viewer's session user.
+     *
+     * @return The viewer's user.
+     */
+    public @NotNull User getUser() {
+        return this.memo("user", () -> MineManiaMenus.getInstance()
+                .getUserSessionRegistry()
+                .getUser(this.viewer)
+        );
+    }
+
+    /**
+     * Used to get the viewer's paws.
+     *
+     * @return The amount of paws.
+     */
+    public long getPaws() {
+        return this.memo("paws", () -> this.getUser().getPaws());
+    }
+
+    /**
+     * Used to get the owner of a game room.
+     *
+     * @param record The game room.
+     * @return The owner.
+     */
+    public @NotNull MineManiaUser getOwner(@NotNull GameRoomRecord record) {
+        return this.memo("owner:" + record.getUuid(), record::getOwner);
+    }
+
+    /**
+     * Used to get the members of a game room.
+     *
+     * @param record The game room.
+     * @return The members, including the owner.
+     */
+    public @NotNull List<MineManiaUser> getMembers(@NotNull GameRoomRecord record) {
+        return this.memo("members:" + record.getUuid(), () -> MineManiaMenus.getInstance()
+                .getUsers(record.getPlayerUuids())
+        );
+    }
+
+    /**
+     * Used to get the arena availability for a game type.
+     *
+     * @param gameType The type of game.
+     * @return The lines of arena availability.
+     */
+    public @NotNull List<String> getArenaLore(@NotNull GameType gameType) {
+        return this.memo("arenas:" + gameType.getName(), () -> MineManiaMenus.getInstance().getAPI()
+                .getGameManager()
+                .getArenaAvailabilityAsLore(gameType)
+        );
+    }
+
+    /**
+     * Used to get the amount of lookups made in every frame.
+     *
+     * @return The total amount of lookups.
+     */
+    public static long getTotalLookups() {
+        return RenderContext.totalLookups.get();
+    }
+
+    /**
+     * Used to get the amount of lookups in every
+     * frame that were answered from memory.
+     *
+     * @return The total amount of lookups saved.
+     */
+    public static long getTotalLookupsSaved() {
+        return RenderContext.totalLookupsSaved.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T memo(@NotNull String key, @NotNull Supplier<T> supplier) {
+        if (this.memoMap.containsKey(key)) {
+            RenderContext.totalLookupsSaved.incrementAndGet();
+            return (T) this.memoMap.get(key);
+        }
+
+        RenderContext.totalLookups.incrementAndGet();
+
+        T value = supplier.get();
+        this.memoMap.put(key, value);
+        return value;
+    }
+}
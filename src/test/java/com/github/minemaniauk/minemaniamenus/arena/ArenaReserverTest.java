@@ -0,0 +1,120 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that only one game room wins each arena
+ * when many game rooms start at once.
+ */
+public class ArenaReserverTest {
+
+    private static final int STARTERS = 64;
+    private static final int ARENAS = 16;
+
+    @Test
+    public void testOneClaimantWinsEachArena() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            InMemoryArenaStore store = new InMemoryArenaStore();
+            for (int index = 0; index < ArenaReserverTest.ARENAS; index++) {
+                store.addArena("arena" + index, "spleef", 8);
+            }
+
+            ArenaReserver<InMemoryArenaStore.Slot, String> reserver = new ArenaReserver<>(
+                    store, new LocalArenaLease(), Duration.ofSeconds(10), 1000, Duration.ofMillis(1)
+            );
+
+            Map<UUID, InMemoryArenaStore.Slot> winnerMap = ArenaReserverTest.startAtOnce(reserver);
+
+            // Every arena should be won, and each by one game room.
+            assertEquals(ArenaReserverTest.ARENAS, winnerMap.size());
+            assertEquals(ArenaReserverTest.ARENAS, new HashSet<>(winnerMap.values()).size());
+
+            for (Map.Entry<UUID, InMemoryArenaStore.Slot> entry : winnerMap.entrySet()) {
+                assertEquals(entry.getKey(), entry.getValue().owner().get());
+            }
+        }
+    }
+
+    @Test
+    public void testNoArenaWhenNoneAvailable() {
+        ArenaReserver<InMemoryArenaStore.Slot, String> reserver = new ArenaReserver<>(
+                new InMemoryArenaStore().addArena("arena", "spleef", 2),
+                new LocalArenaLease(), Duration.ofSeconds(10), 3, Duration.ofMillis(1)
+        );
+
+        assertTrue(reserver.reserve(UUID.randomUUID(), "spleef", 4).isEmpty());
+        assertTrue(reserver.reserve(UUID.randomUUID(), "tnt_run", 2).isEmpty());
+        assertTrue(reserver.reserve(UUID.randomUUID(), "spleef", 2).isPresent());
+        assertTrue(reserver.reserve(UUID.randomUUID(), "spleef", 2).isEmpty());
+    }
+
+    @Test
+    public void testGivesUpWhileLeaseIsHeld() {
+        LocalArenaLease lease = new LocalArenaLease();
+        assertTrue(lease.acquire("arena:spleef", UUID.randomUUID(), Duration.ofSeconds(10)));
+
+        InMemoryArenaStore store = new InMemoryArenaStore().addArena("arena", "spleef", 2);
+        ArenaReserver<InMemoryArenaStore.Slot, String> reserver = new ArenaReserver<>(
+                store, lease, Duration.ofSeconds(10), 3, Duration.ofMillis(1)
+        );
+
+        assertTrue(reserver.reserve(UUID.randomUUID(), "spleef", 2).isEmpty());
+        assertNull(store.getSlotList().get(0).owner().get());
+        assertEquals(1, reserver.getExhausted());
+    }
+
+    private static Map<UUID, InMemoryArenaStore.Slot> startAtOnce(
+            ArenaReserver<InMemoryArenaStore.Slot, String> reserver) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(ArenaReserverTest.STARTERS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<UUID, Future<Optional<InMemoryArenaStore.Slot>>> futureMap = new HashMap<>();
+
+        try {
+            for (int index = 0; index < ArenaReserverTest.STARTERS; index++) {
+                UUID gameRoomUuid = UUID.randomUUID();
+                futureMap.put(gameRoomUuid, executor.submit(() -> {
+                    start.await();
+                    return reserver.reserve(gameRoomUuid, "spleef", 4);
+                }));
+            }
+
+            start.countDown();
+
+            Map<UUID, InMemoryArenaStore.Slot> winnerMap = new HashMap<>();
+            for (Map.Entry<UUID, Future<Optional<InMemoryArenaStore.Slot>>> entry : futureMap.entrySet()) {
+                entry.getValue().get(30, TimeUnit.SECONDS).ifPresent(slot -> winnerMap.put(entry.getKey(), slot));
+            }
+            return winnerMap;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
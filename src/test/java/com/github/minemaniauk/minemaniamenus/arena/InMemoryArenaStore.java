@@ -0,0 +1,104 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents arenas held in memory.
+ * Used to test how reservations behave when many game rooms start at once.
+ * <p>
+ * Claims are written without checking the arena's owner,
+ * the same as the {@link DatabaseArenaStore}, so only the
+ * lease stops two game rooms claiming the same arena.
+ */
+public class InMemoryArenaStore implements ArenaStore<InMemoryArenaStore.Slot, String> {
+
+    private final @NotNull List<Slot> slotList = new CopyOnWriteArrayList<>();
+
+    /**
+     * Represents an arena held in memory.
+     *
+     * @param identifier The arena's identifier.
+     * @param gameType   The type of game the arena is for.
+     * @param capacity   The maximum amount of players.
+     * @param owner      The game room that claimed the arena.
+     */
+    public record Slot(@NotNull String identifier,
+                       @NotNull String gameType,
+                       int capacity,
+                       @NotNull AtomicReference<UUID> owner) {
+    }
+
+    /**
+     * Used to add an arena to the store.
+     *
+     * @param identifier The arena's identifier.
+     * @param gameType   The type of game the arena is for.
+     * @param capacity   The maximum amount of players.
+     * @return This instance.
+     */
+    public @NotNull InMemoryArenaStore addArena(@NotNull String identifier, @NotNull String gameType, int capacity) {
+        this.slotList.add(new Slot(identifier, gameType, capacity, new AtomicReference<>()));
+        return this;
+    }
+
+    /**
+     * Used to get the arenas in the store.
+     *
+     * @return The list of arenas.
+     */
+    public @NotNull List<Slot> getSlotList() {
+        return this.slotList;
+    }
+
+    @Override
+    public @Nullable Slot findAvailable(@NotNull String gameType, int players) {
+        for (Slot slot : this.slotList) {
+            if (!slot.gameType().equals(gameType)) continue;
+            if (slot.capacity() < players) continue;
+            if (slot.owner().get() != null) continue;
+            return slot;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean claim(@NotNull Slot arena, @NotNull UUID gameRoomUuid) {
+
+        // Leave a gap between finding and writing,
+        // so another game room could find the same arena.
+        Thread.yield();
+        arena.owner().set(gameRoomUuid);
+        return true;
+    }
+
+    @Override
+    public boolean verify(@NotNull Slot arena, @NotNull UUID gameRoomUuid) {
+        return gameRoomUuid.equals(arena.owner().get());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MineManiaMenus
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniamenus.arena;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a lease only has one holder at a time.
+ */
+public class LocalArenaLeaseTest {
+
+    @Test
+    public void testOneHolderWhenAcquiredAtOnce() throws Exception {
+        LocalArenaLease lease = new LocalArenaLease();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futureList = new ArrayList<>();
+
+        try {
+            for (int index = 0; index < 32; index++) {
+                futureList.add(executor.submit(() -> {
+                    start.await();
+                    return lease.acquire("arena:spleef", UUID.randomUUID(), Duration.ofSeconds(10));
+                }));
+            }
+
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Boolean> future : futureList) {
+                if (future.get(10, TimeUnit.SECONDS)) acquired++;
+            }
+            assertEquals(1, acquired);
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReleaseOnlyByHolder() {
+        LocalArenaLease lease = new LocalArenaLease();
+        UUID holder = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        assertTrue(lease.acquire("arena:spleef", holder, Duration.ofSeconds(10)));
+        assertTrue(lease.acquire("arena:tnt_run", other, Duration.ofSeconds(10)));
+
+        lease.release("arena:spleef", other);
+        assertFalse(lease.acquire("arena:spleef", other, Duration.ofSeconds(10)));
+
+        lease.release("arena:spleef", holder);
+        assertTrue(lease.acquire("arena:spleef", other, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void testExpiredLeaseCanBeAcquired() throws Exception {
+        LocalArenaLease lease = new LocalArenaLease();
+
+        assertTrue(lease.acquire("arena:spleef", UUID.randomUUID(), Duration.ofMillis(50)));
+        assertFalse(lease.acquire("arena:spleef", UUID.randomUUID(), Duration.ofSeconds(10)));
+
+        Thread.sleep(100);
+        assertTrue(lease.acquire("arena:spleef", UUID.randomUUID(), Duration.ofSeconds(10)));
+    }
+}